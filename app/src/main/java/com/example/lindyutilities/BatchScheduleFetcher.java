@@ -0,0 +1,257 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches the schedule for several employee IDs at once, e.g. a foreman's whole crew.
+ * <p>
+ * Requests run on OkHttp's dispatcher, at most {@code parallelism} at a time. Each response is read into
+ * memory and closed before its page is parsed in the background lane of the shared {@link ParseExecutor},
+ * so a connection is never held while parsing. Every page's rows are merged into one roster.
+ */
+public class BatchScheduleFetcher {
+
+    private final OkHttpClient client;
+    private final int parallelism;
+
+    public BatchScheduleFetcher(OkHttpClient client, int parallelism) {
+        this.client = client;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Outcome of a batch: the per-ID schedules, the merged roster and per-ID latency and failures.
+     */
+    public static class BatchResult {
+        private final Map<String, Schedule> schedules;
+        private final Map<String, String> failures;
+        private final Map<String, Long> latencyMillis;
+        private final List<Employee> roster;
+
+        BatchResult(Map<String, Schedule> schedules, Map<String, String> failures,
+                    Map<String, Long> latencyMillis, List<Employee> roster) {
+            this.schedules = schedules;
+            this.failures = failures;
+            this.latencyMillis = latencyMillis;
+            this.roster = roster;
+        }
+
+        public Map<String, Schedule> getSchedules() {
+            return schedules;
+        }
+
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        public Map<String, Long> getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * Every distinct person across all fetched pages, including each ID's own row, in first-seen order.
+         */
+        public List<Employee> getRoster() {
+            return roster;
+        }
+    }
+
+    /**
+     * Callback interface for batch fetches.
+     */
+    public interface BatchCallback {
+        void onComplete(BatchResult result);
+    }
+
+    /**
+     * Starts fetching all IDs and reports once every request has finished, on a background thread.
+     */
+    public void fetchAsync(Set<String> employeeIds, BatchCallback callback) {
+        new Batch(new ArrayList<>(employeeIds), callback).start();
+    }
+
+    /**
+     * Fetches all IDs, blocking until every request has finished. Don't call this on the main thread.
+     * If interrupted, returns whatever has finished so far.
+     */
+    public BatchResult fetch(Set<String> employeeIds) {
+        CountDownLatch done = new CountDownLatch(1);
+        Batch batch = new Batch(new ArrayList<>(employeeIds), result -> done.countDown());
+        batch.start();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch.result();
+    }
+
+    /**
+     * Merges rosters, keeping the first row seen for each person.
+     * <p>
+     * The same person's row can differ between pages (your own row has its "Job Address: " prefix
+     * stripped, other pages keep it), so rows are matched on their normalized name and job address
+     * rather than on {@link Employee#equals}.
+     *
+     * @param exclude A row to leave out wherever it appears, e.g. your own, or null.
+     */
+    public static List<Employee> mergeRosters(Employee exclude, Collection<? extends Collection<Employee>> rosters) {
+        String excludedKey = exclude == null ? null : rosterKey(exclude);
+        Map<String, Employee> merged = new LinkedHashMap<>();
+        for (Collection<Employee> roster : rosters) {
+            for (Employee employee : roster) {
+                String key = rosterKey(employee);
+                if (!key.equals(excludedKey) && !merged.containsKey(key)) {
+                    merged.put(key, employee);
+                }
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(merged.values()));
+    }
+
+    private static String rosterKey(Employee employee) {
+        String address = employee.getJobAddress().trim();
+        if (address.regionMatches(true, 0, "Job Address:", 0, "Job Address:".length())) {
+            address = address.substring("Job Address:".length());
+        }
+        return normalize(employee.getName()) + '\0' + normalize(address);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One run of {@link #fetchAsync}: keeps {@code parallelism} requests in flight and collects results.
+     */
+    private final class Batch {
+        private final List<String> employeeIds;
+        private final BatchCallback callback;
+        private final Map<String, Schedule> schedules = new ConcurrentHashMap<>();
+        private final Map<String, String> failures = new ConcurrentHashMap<>();
+        private final Map<String, Long> latencies = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+
+        Batch(List<String> employeeIds, BatchCallback callback) {
+            this.employeeIds = employeeIds;
+            this.callback = callback;
+            this.remaining = new AtomicInteger(employeeIds.size());
+        }
+
+        void start() {
+            if (employeeIds.isEmpty()) {
+                callback.onComplete(result());
+                return;
+            }
+            for (int i = 0; i < Math.min(parallelism, employeeIds.size()); i++) {
+                startNext();
+            }
+        }
+
+        private void startNext() {
+            int index = next.getAndIncrement();
+            if (index >= employeeIds.size()) {
+                return;
+            }
+            String employeeId = employeeIds.get(index);
+            long start = System.nanoTime();
+            client.newCall(DailyScheduleHelper.newScheduleRequest(employeeId).build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    startNext();
+                    finish(employeeId, start, null, "Error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    byte[] bytes;
+                    Charset charset;
+                    try (Response closing = response) {
+                        ResponseBody body = closing.body();
+                        if (!closing.isSuccessful() || body == null) {
+                            throw new IOException("HTTP " + closing.code());
+                        }
+                        charset = HttpScheduleSource.charsetOf(body);
+                        bytes = HttpScheduleSource.readBody(body);
+                    } catch (IOException e) {
+                        startNext();
+                        finish(employeeId, start, null, "Error: " + e.getMessage());
+                        return;
+                    }
+
+                    // The connection is free again, so the next request can go while this page parses
+                    startNext();
+                    // Crews come after your own schedule, so they parse in the background lane
+                    ParseExecutor.shared().submit(ParseExecutor.Lane.BACKGROUND, null, () -> {
+                        try {
+                            finish(employeeId, start, new ScheduleParser().parse(bytes, charset), null);
+                        } catch (IOException e) {
+                            finish(employeeId, start, null, "Error: " + e.getMessage());
+                        } catch (RuntimeException e) {
+                            finish(employeeId, start, null, "Error: " + e);
+                        }
+                    }, () -> finish(employeeId, start, null, "Error: parse cancelled"));
+                }
+            });
+        }
+
+        private void finish(String employeeId, long start, Schedule schedule, String failure) {
+            latencies.put(employeeId, (System.nanoTime() - start) / 1_000_000);
+            if (schedule != null) {
+                schedules.put(employeeId, schedule);
+            } else {
+                failures.put(employeeId, failure);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                callback.onComplete(result());
+            }
+        }
+
+        /**
+         * What has finished so far, in the caller's ID order.
+         */
+        BatchResult result() {
+            Map<String, Schedule> orderedSchedules = new LinkedHashMap<>();
+            Map<String, Long> orderedLatencies = new LinkedHashMap<>();
+            Map<String, String> orderedFailures = new LinkedHashMap<>();
+            List<List<Employee>> rosters = new ArrayList<>();
+            for (String employeeId : employeeIds) {
+                Schedule schedule = schedules.get(employeeId);
+                if (schedule != null) {
+                    orderedSchedules.put(employeeId, schedule);
+                    if (!schedule.getMySchedule().getName().equals("You")) {
+                        // Each ID's own row is not in its crew table
+                        rosters.add(Collections.singletonList(schedule.getMySchedule()));
+                    }
+                    rosters.add(schedule.getEmployees());
+                }
+                if (failures.containsKey(employeeId)) {
+                    orderedFailures.put(employeeId, failures.get(employeeId));
+                }
+                if (latencies.containsKey(employeeId)) {
+                    orderedLatencies.put(employeeId, latencies.get(employeeId));
+                }
+            }
+            return new BatchResult(orderedSchedules, orderedFailures, orderedLatencies, mergeRosters(null, rosters));
+        }
+    }
+}
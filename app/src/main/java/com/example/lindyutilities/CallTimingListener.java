@@ -0,0 +1,116 @@
+package com.example.lindyutilities;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * Records where the time of a single HTTP call goes: DNS, connect, TLS, time to first byte and body.
+ * <p>
+ * One instance is created per call, so no synchronization is needed. Phases that did not happen
+ * (a pooled connection skips DNS, connect and TLS) are reported as 0. Debug builds only.
+ */
+public class CallTimingListener extends EventListener {
+
+    // Release builds get the no-op listener, so calls pay nothing for timing they would never log
+    public static final EventListener.Factory FACTORY = call -> BuildConfig.DEBUG ? new CallTimingListener() : EventListener.NONE;
+
+    private long callStart;
+    private long dnsStart, dnsEnd;
+    private long connectStart, connectEnd;
+    private long secureConnectStart, secureConnectEnd;
+    private long requestSent, responseHeadersStart;
+    private long bodyStart, bodyEnd;
+    private long bodyBytes;
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        secureConnectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseHeadersStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        bodyEnd = System.nanoTime();
+        bodyBytes = byteCount;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        Log.d("HttpTiming", describe(call, "ok"));
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        Log.d("HttpTiming", describe(call, "failed: " + ioe.getMessage()));
+    }
+
+    private String describe(Call call, String outcome) {
+        long now = System.nanoTime();
+        return call.request().url().encodedPath() + " " + outcome
+                + ": dns " + millis(dnsStart, dnsEnd)
+                + " ms, connect " + millis(connectStart, connectEnd)
+                + " ms, tls " + millis(secureConnectStart, secureConnectEnd)
+                + " ms, ttfb " + millis(requestSent, responseHeadersStart)
+                + " ms, body " + millis(bodyStart, bodyEnd)
+                + " ms (" + bodyBytes + " bytes), total " + millis(callStart, now) + " ms";
+    }
+
+    private static long millis(long start, long end) {
+        return start == 0 || end == 0 ? 0 : (end - start) / 1_000_000;
+    }
+}
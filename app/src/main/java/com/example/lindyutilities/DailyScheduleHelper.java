@@ -1,318 +1,165 @@
 package com.example.lindyutilities;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
 import android.content.Context;
-import android.os.Build;
+import android.os.SystemClock;
 import android.util.Log;
 
-import androidx.core.app.NotificationCompat;
-
-import okhttp3.Call;
-import okhttp3.Callback;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
-
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
+import java.io.File;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * The app's entry point to the schedule update pipeline: fetch, fingerprint, parse, diff against the
+ * saved snapshot, persist (all in {@link SchedulePipeline}), and notify. Foreground and background checks
+ * both go through here. Callers asking for the same employee while an update is running share it instead
+ * of fetching again, and for a short window after it completes they get its result straight back (see
+ * {@link ScheduleUpdates}). Debug builds count memo hits, joined updates and fetches started; see
+ * {@link DebugStatsActivity}.
+ * <p>
+ * Processing runs on the shared {@link ParseExecutor}, where an update someone is waiting on in the app
+ * goes ahead of background checks. Pages come from the live site unless another {@link ScheduleSource}
+ * is passed in.
+ */
 public class DailyScheduleHelper {
 
-    private static final String CHANNEL_ID = "schedule_updates";
-    private static final int NOTIFICATION_ID = 1;
+    private static final String PREFS_NAME = "LindyUtilitiesPrefs";
+    private static final String ETAG_KEY = "scheduleETag";
+    private static final String LAST_MODIFIED_KEY = "scheduleLastModified";
+    private static final String FINGERPRINT_KEY = "scheduleFingerprint";
+    private static final String RUN_LOG_FILE = "schedule_runs.bin";
+    private static final String ARCHIVE_FILE_PREFIX = "schedule_archive_";
+
+    // One per process, so every helper for an employee shares its updates
+    private static final ScheduleUpdates UPDATES = new ScheduleUpdates(SystemClock::elapsedRealtime);
 
-    private final String url = "";
+    static final String SCHEDULE_URL = "";
     private final String employeeId;
-    private final OkHttpClient client;
-    private String lastHash = null; // To store the last hash of the schedule
-    private ScheduledExecutorService scheduler;
     private final Context context;
+    private final SchedulePipeline pipeline;
+    private final ScheduleUpdates.Hooks hooks = new AppHooks();
 
     public DailyScheduleHelper(String employeeId, Context context) {
-        this.employeeId = employeeId;
-        this.client = new OkHttpClient();
-        this.context = context;
-        createNotificationChannel();
-    }
-
-    private String extractScheduleDate(String html) {
-        Document doc = Jsoup.parse(html);
-        Element header = doc.selectFirst("h3 span.dailySchedule"); // Select the `<span>` in the `<h3>`
-        if (header != null) {
-            String fullText = header.parent().text(); // Get text from the `<h3>` parent
-            return fullText.replace("Daily Schedule for ", "").trim(); // Extract and clean up the date
-        }
-        return "Not Found";
+        this(employeeId, context, new HttpScheduleSource(HttpClientProvider.get(context), SCHEDULE_URL));
     }
 
     /**
-     * Fetches the schedule and provides the result through the callback.
-     *
-     * @param callback Callback to handle the result.
+     * @param source Where pages come from, e.g. a {@link ReplayScheduleSource} to profile against a recording.
      */
-    public void fetchSchedule(ScheduleCallback callback) {
-        Request request = new Request.Builder()
-                .url(url)
-                .addHeader("Cookie", "schedulingEmpID=" + employeeId)
-                .build();
-
-        client.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                callback.onError("Error: " + e.getMessage());
-            }
-
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                if (response.isSuccessful() && response.body() != null) {
-                    String html = response.body().string();
-                    String scheduleDate = extractScheduleDate(html);
-                    Document doc = Jsoup.parse(html);
-
-                    // Initialize "mySchedule" with a default
-                    Employee[] mySchedule = new Employee[1];
-
-                    // Parse all employees, including "You" (from `current` row)
-                    Element employeesTable = doc.select("table.dailySchedule").get(1);
-                    List<Employee> employees = parseEmployees(employeesTable, mySchedule);
-
-                    Log.d("MySchedule", mySchedule[0].toString());
-
-                    callback.onSuccess(scheduleDate, mySchedule[0], employees); // Pass both results
-                } else {
-                    callback.onError("Error: HTTP " + response.code());
-                }
-            }
-        });
+    public DailyScheduleHelper(String employeeId, Context context, ScheduleSource source) {
+        this.employeeId = employeeId;
+        this.context = context.getApplicationContext();
+        this.pipeline = new SchedulePipeline(employeeId, source,
+                new ScheduleSnapshotStore(context.getFilesDir(), employeeId), openArchive(context, employeeId),
+                new PrefsValidatorStore(), ParseExecutor.shared());
+        if (BuildConfig.DEBUG && Metrics.getRunLog() == null) {
+            // Release builds keep metrics off: no per-run timing, counters or run log writes
+            Metrics.setEnabled(true);
+            Metrics.setRunLog(new RunLog(new File(context.getFilesDir(), RUN_LOG_FILE)));
+        }
     }
 
-
     /**
-     * Starts periodic checking for updates.
-     * @param interval Interval in seconds between checks.
+     * Opens the history of every schedule the pipeline has seen for an employee. Reads block; keep them
+     * off the main thread.
      */
-    public void startCheckingForUpdates(long interval) {
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        scheduler.scheduleAtFixedRate(this::checkForUpdates, 0, interval, TimeUnit.SECONDS);
+    public static ScheduleArchive openArchive(Context context, String employeeId) {
+        return new ScheduleArchive(new File(context.getFilesDir(), ARCHIVE_FILE_PREFIX + employeeId + ".bin"),
+                ScheduleArchive.DEFAULT_MAX_BYTES);
     }
 
     /**
-     * Stops periodic checking for updates.
+     * Fetches the schedule and provides the result through the callback.
+     *
+     * @param callback Callback to handle the result.
      */
-    public void stopCheckingForUpdates() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-        }
+    public void fetchSchedule(ScheduleCallback callback) {
+        UPDATES.request(employeeId, pipeline, hooks, callback, false, false, ParseExecutor.Lane.FOREGROUND);
     }
 
     /**
-     * Checks for schedule updates and sends a notification if changes are detected.
+     * Fetches the schedule, but only reports it if it differs from the saved snapshot, and posts the update
+     * notification when something changed. This is the background check.
+     * <p>
+     * Sends the stored ETag / Last-Modified validators with the request. On a 304, an unchanged body
+     * fingerprint or a parse that diffs empty, only {@link ScheduleCallback#onNotModified()} is called.
+     *
+     * @param callback Callback to handle the result.
      */
-    private void checkForUpdates() {
-        Request request = new Request.Builder()
-                .url(url)
-                .addHeader("Cookie", "schedulingEmpID=" + employeeId)
-                .build();
-
-        client.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                // Log or handle errors if necessary
-            }
-
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                if (response.isSuccessful() && response.body() != null) {
-                    String html = response.body().string();
-                    String currentHash = hashContent(html);
-
-                    if (lastHash == null || !currentHash.equals(lastHash)) {
-                        lastHash = currentHash; // Update the stored hash
-                        sendNotification();
-                    }
-                }
-            }
-        });
+    public void checkForUpdates(ScheduleCallback callback) {
+        UPDATES.request(employeeId, pipeline, hooks, callback, true, true, ParseExecutor.Lane.BACKGROUND);
     }
 
     /**
-     * Computes a hash of the content to detect changes.
+     * Records and announces what the shared updates find.
      */
-    private String hashContent(String content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] hashBytes = digest.digest(content.getBytes());
-            StringBuilder hashBuilder = new StringBuilder();
-            for (byte b : hashBytes) {
-                hashBuilder.append(String.format("%02x", b));
+    private class AppHooks implements ScheduleUpdates.Hooks {
+        @Override
+        public void onChanged(String employeeId, Schedule schedule, ScheduleDiff diff, boolean notify) {
+            // Teaches the background poller when the schedule goes out, even if the app saw it first
+            ScheduleWorker.recordCheck(context, employeeId, true);
+            if (notify) {
+                new ScheduleNotifier(context).notifyChanged(schedule.getScheduleDate(), diff);
             }
-            return hashBuilder.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not found", e);
         }
-    }
 
-    /**
-     * Sends a notification to notify the user about schedule updates.
-     */
-    private void sendNotification() {
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-                .setSmallIcon(android.R.drawable.ic_notification_overlay)
-                .setContentTitle("Schedule Updated")
-                .setContentText("Your schedule has been updated. Tap to view.")
-                .setPriority(NotificationCompat.PRIORITY_HIGH);
+        @Override
+        public void onRejected(String employeeId, ScheduleParseException e) {
+            Log.e("DailyScheduleHelper", "Rejected schedule page (" + e.getReason() + "): " + e.getMessage());
+        }
 
-        NotificationManager notificationManager =
-                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        notificationManager.notify(NOTIFICATION_ID, builder.build());
+        @Override
+        public void onPersistFailed(String employeeId, IOException e) {
+            Log.e("DailyScheduleHelper", "Failed to save schedule", e);
+        }
     }
 
     /**
-     * Creates a notification channel for schedule updates (required for Android 8.0+).
+     * Starts a request for the schedule page as seen by the given employee.
      */
-    private void createNotificationChannel() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            CharSequence name = "Schedule Updates";
-            String description = "Notifications for schedule updates.";
-            int importance = NotificationManager.IMPORTANCE_HIGH;
-            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, name, importance);
-            channel.setDescription(description);
-
-            NotificationManager notificationManager =
-                    (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-            if (notificationManager != null) {
-                notificationManager.createNotificationChannel(channel);
-            }
-        }
+    static Request.Builder newScheduleRequest(String employeeId) {
+        return HttpScheduleSource.newRequest(SCHEDULE_URL, employeeId);
     }
 
     /**
-     * Extracts employee data from the given table element.
-     *
-     * @param table The HTML table element containing employee rows.
-     * @return A list of Employee objects parsed from the table.
+     * Keeps the validators and body fingerprint of the last full response in the app's preferences.
      */
-    private List<Employee> parseEmployees(Element table, Employee[] mySchedule) {
-        List<Employee> employees = new ArrayList<>();
-        Employee currentEmployee = null; // To associate address with the last employee
-
-        // Extract all rows from the table
-        Elements rows = table.select("tr");
-
-        for (int i = 0; i < rows.size(); i++) {
-            Element row = rows.get(i);
-
-            // Handle your personal entry (row with "current" class)
-            if (row.hasClass("current")) {
-                currentEmployee = parseEmployeeDetails(row);
-
-                // Look ahead for the job address
-                String jobAddress = "N/A";
-                if (i + 1 < rows.size() && rows.get(i + 1).select(".dailySchedule.pnm-comments").first() != null) {
-                    jobAddress = rows.get(i + 1).select(".dailySchedule.pnm-comments").text();
-                    jobAddress = jobAddress.replace("Job Address: ", "").trim(); // Clean up address
-                    i++; // Skip the address row
-                }
-                currentEmployee.setJobAddress(jobAddress);
-
-                Log.d("EmployeeDetails", currentEmployee.toString());
-
-                // Assign this employee as "You"
-                mySchedule[0] = currentEmployee;
-            }
-            // Handle other employees (rows with "empRow" class)
-            else if (row.hasClass("empRow")) {
-                currentEmployee = parseEmployeeDetails(row);
-
-                // Look ahead for the job address
-                String jobAddress = "N/A";
-                if (i + 1 < rows.size() && rows.get(i + 1).select(".dailySchedule.pnm-comments").first() != null) {
-                    jobAddress = rows.get(i + 1).select(".dailySchedule.pnm-comments").text();
-                    i++; // Skip the address row
-                }
-                currentEmployee.setJobAddress(jobAddress);
-
-                // Add to employee list
-                employees.add(currentEmployee);
-            }
-        }
-
-        // If no "current" row was found, ensure mySchedule has a default value
-        if (mySchedule[0] == null) {
-            mySchedule[0] = new Employee("You", "N/A", "Not scheduled today", "N/A", "N/A", "N/A", "N/A", "N/A");
+    private class PrefsValidatorStore implements SchedulePipeline.ValidatorStore {
+        @Override
+        public String getETag() {
+            return getStoredValue(ETAG_KEY);
         }
 
-        return employees;
-    }
-
-
-    private Employee parseEmployeeDetails(Element row) {
-        Elements columns = row.select("td");
-
-        // Extract name (exclude <span> content)
-        String name = "N/A";
-        Element employeeColumn = columns.select(".dailySchedule.employee").first();
-        if (employeeColumn != null) {
-            name = employeeColumn.ownText();
+        @Override
+        public String getLastModified() {
+            return getStoredValue(LAST_MODIFIED_KEY);
         }
 
-        // Extract employee phone number (from span.empComments)
-        String employeePhone = "N/A";
-        if (employeeColumn != null) {
-            Element phoneElement = employeeColumn.select("span.empComments").first();
-            if (phoneElement != null) {
-                employeePhone = phoneElement.text();
-            }
+        @Override
+        public String getFingerprint() {
+            return getStoredValue(FINGERPRINT_KEY);
         }
 
-        // Extract shift
-        String shift = columns.select(".dailySchedule.shift").text();
-
-        // Extract job (exclude "Job Schedule" link text)
-        String job = columns.select(".dailySchedule.job").html().split("<div")[0].trim();
-
-        // Extract foreman name (exclude <span> content)
-        String foreman = "N/A";
-        Element foremanColumn = columns.select(".dailySchedule.foreman").first();
-        if (foremanColumn != null) {
-            foreman = foremanColumn.ownText();
+        @Override
+        public void save(String etag, String lastModified, String fingerprint) {
+            context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                    .edit()
+                    .putString(ETAG_KEY + "_" + employeeId, etag)
+                    .putString(LAST_MODIFIED_KEY + "_" + employeeId, lastModified)
+                    .putString(FINGERPRINT_KEY + "_" + employeeId, fingerprint)
+                    .apply();
         }
 
-        // Extract foreman phone number (from span.noWrap.empComments)
-        String foremanPhone = "N/A";
-        if (foremanColumn != null) {
-            Element foremanPhoneElement = foremanColumn.select("span.noWrap.empComments").first();
-            if (foremanPhoneElement != null) {
-                foremanPhone = foremanPhoneElement.text();
-            }
+        private String getStoredValue(String key) {
+            return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                    .getString(key + "_" + employeeId, null);
         }
-
-        // Extract crew
-        String crew = columns.select(".dailySchedule.crew").text();
-
-        Log.d("Employee", "Name: " + name + ", Shift: " + shift + ", Job: " + job + ", Foreman: " + foreman + ", Crew: " + crew + ", Employee Phone: " + employeePhone + ", Foreman Phone: " + foremanPhone);
-
-        return new Employee(name, shift, job, foreman, crew, "N/A", employeePhone, foremanPhone);
     }
 
     /**
      * Callback interface for fetching the schedule.
      */
-    public interface ScheduleCallback {
-        void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees);
-        void onError(String error);
+    public interface ScheduleCallback extends ScheduleUpdates.Callback {
     }
 
 }
@@ -0,0 +1,107 @@
+package com.example.lindyutilities;
+
+import android.os.Bundle;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hidden screen (tap the schedule header five times) showing pipeline counters and p50/p95 stage
+ * latencies, both for this process and for the runs kept in the on-disk run log. Metrics are only
+ * collected in debug builds, so a release build shows zeros.
+ */
+public class DebugStatsActivity extends AppCompatActivity {
+
+    private TextView tvDebugStats;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_debug_stats);
+        tvDebugStats = findViewById(R.id.tvDebugStats);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        tvDebugStats.setText("Loading...");
+        new Thread(() -> {
+            String stats = buildStats();
+            runOnUiThread(() -> tvDebugStats.setText(stats));
+        }).start(); // The run log lives on disk
+    }
+
+    private String buildStats() {
+        StringBuilder text = new StringBuilder();
+
+        text.append("THIS SESSION\n");
+        for (Metrics.Stage stage : Metrics.Stage.values()) {
+            appendStage(text, stage, Metrics.histogram(stage));
+        }
+        text.append('\n');
+        for (Metrics.Counter counter : Metrics.Counter.values()) {
+            text.append(String.format(Locale.ROOT, "%-22s %d%n", counter, Metrics.count(counter)));
+        }
+
+        RunLog runLog = Metrics.getRunLog();
+        List<RunRecord> runs = runLog != null ? runLog.readAll() : null;
+        if (runs == null || runs.isEmpty()) {
+            text.append("\nNo runs recorded yet.\n");
+            return text.toString();
+        }
+
+        Map<Metrics.Stage, LatencyHistogram> histograms = new EnumMap<>(Metrics.Stage.class);
+        Map<RunRecord.Outcome, Integer> outcomes = new EnumMap<>(RunRecord.Outcome.class);
+        int background = 0;
+        for (Metrics.Stage stage : Metrics.Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+        for (RunRecord run : runs) {
+            for (Metrics.Stage stage : Metrics.Stage.values()) {
+                long micros = run.getStageMicros(stage);
+                if (micros >= 0) {
+                    histograms.get(stage).record(micros);
+                }
+            }
+            Integer count = outcomes.get(run.getOutcome());
+            outcomes.put(run.getOutcome(), count == null ? 1 : count + 1);
+            if (run.isBackground()) {
+                background++;
+            }
+        }
+
+        text.append(String.format(Locale.ROOT, "%nLAST %d RUNS (%d background)%n", runs.size(), background));
+        for (Metrics.Stage stage : Metrics.Stage.values()) {
+            appendStage(text, stage, histograms.get(stage));
+        }
+        text.append('\n');
+        for (Map.Entry<RunRecord.Outcome, Integer> entry : outcomes.entrySet()) {
+            text.append(String.format(Locale.ROOT, "%-22s %d%n", entry.getKey(), entry.getValue()));
+        }
+        return text.toString();
+    }
+
+    private static void appendStage(StringBuilder text, Metrics.Stage stage, LatencyHistogram histogram) {
+        if (histogram.count() == 0) {
+            text.append(String.format(Locale.ROOT, "%-8s -%n", stage));
+            return;
+        }
+        text.append(String.format(Locale.ROOT, "%-8s n=%-4d p50=%-9s p95=%s%n", stage, histogram.count(),
+                formatMicros(histogram.percentile(0.50)), formatMicros(histogram.percentile(0.95))));
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 10_000_000) {
+            return String.format(Locale.ROOT, "%.1fms", micros / 1000.0);
+        }
+        return String.format(Locale.ROOT, "%.1fs", micros / 1_000_000.0);
+    }
+}
@@ -12,20 +12,39 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.EmployeeViewHolder> {
 
-    private List<Employee> originalEmployees;
-    private final List<Employee> filteredEmployees;
-    private int expandedPosition = RecyclerView.NO_POSITION; // Track expanded item
+    private EmployeeSearchIndex searchIndex;
+    private final EmployeeRowBinder binder = new EmployeeRowBinder(); // Only touched on the main thread
+    private final AsyncListDiffer<EmployeeRow> differ;
+    private String currentQuery = "";
+
+    // Diffs run on the differ's background thread; only the resulting insert/remove/move/change events hit the UI
+    private final DiffUtil.ItemCallback<EmployeeRow> diffCallback = new DiffUtil.ItemCallback<EmployeeRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EmployeeRow oldItem, @NonNull EmployeeRow newItem) {
+            // The stable ID's key: the name, numbered when two people share it
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EmployeeRow oldItem, @NonNull EmployeeRow newItem) {
+            return oldItem == newItem || oldItem.getEmployee().equals(newItem.getEmployee());
+        }
+    };
 
     public EmployeeAdapter(List<Employee> employees) {
-        this.originalEmployees = employees;
-        this.filteredEmployees = new ArrayList<>(employees);
+        this.differ = new AsyncListDiffer<>(this, diffCallback);
+        setHasStableIds(true);
+        binder.setRoster(employees);
+        this.searchIndex = new EmployeeSearchIndex(employees);
+        differ.submitList(binder.rowsOf(employees));
     }
 
     @NonNull
@@ -33,83 +52,102 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
     public EmployeeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_employee, parent, false);
-        return new EmployeeViewHolder(view);
+        EmployeeViewHolder holder = new EmployeeViewHolder(view);
+
+        // One listener per holder for its whole life; it acts on whichever row is bound at click time
+        View.OnClickListener listener = v -> onRowClicked(holder, v);
+        holder.itemView.setOnClickListener(listener);
+        holder.btnCall.setOnClickListener(listener);
+        holder.btnMessage.setOnClickListener(listener);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position) {
-        Employee employee = filteredEmployees.get(position);
-        Context context = holder.itemView.getContext();
-
-        // Bind employee data to the views
-        holder.tvEmployeeName.setText("Name: " + employee.getName());
-        holder.tvEmployeePhone.setText("Phone: " + employee.getEmployeePhone());
-        holder.tvShift.setText("Shift: " + employee.getShift());
-        holder.tvJob.setText("Job: " + employee.getJob());
-        holder.tvForeman.setText("Foreman: " + employee.getForeman());
-        holder.tvForemanPhone.setText("Foreman Phone: " + employee.getForemanPhone());
-        holder.tvCrew.setText("Crew: " + employee.getCrew());
-        holder.tvJobAddress.setText(employee.getJobAddress());
-
-        // Manage expanded state
-        boolean isExpanded = position == expandedPosition;
-        holder.trayLayout.setVisibility(isExpanded ? View.VISIBLE : View.GONE);
-
-        // Set click listener for toggling the tray
-        holder.itemView.setOnClickListener(v -> {
-            int previousExpandedPosition = expandedPosition;
-            expandedPosition = isExpanded ? RecyclerView.NO_POSITION : position;
-            notifyItemChanged(previousExpandedPosition); // Collapse previous tray
-            notifyItemChanged(expandedPosition); // Expand current tray
-        });
-
-        // Set Call button functionality
-        holder.btnCall.setOnClickListener(v -> {
-            if (!employee.getEmployeePhone().equals("N/A")) {
-                Intent callIntent = new Intent(Intent.ACTION_DIAL);
-                callIntent.setData(Uri.parse("tel:" + employee.getEmployeePhone()));
-                context.startActivity(callIntent);
-            } else {
-                Toast.makeText(context, "No phone number available for " + employee.getName(), Toast.LENGTH_SHORT).show();
-            }
-        });
-
-        // Set Message button functionality
-        holder.btnMessage.setOnClickListener(v -> {
-            if (!employee.getEmployeePhone().equals("N/A")) {
-                Intent messageIntent = new Intent(Intent.ACTION_SENDTO);
-                messageIntent.setData(Uri.parse("smsto:" + employee.getEmployeePhone()));
-                context.startActivity(messageIntent);
-            } else {
-                Toast.makeText(context, "No phone number available for " + employee.getName(), Toast.LENGTH_SHORT).show();
-            }
-        });
+        // Labels were formatted when the roster loaded; binding allocates nothing (see EmployeeRowTest)
+        binder.bind(holder, differ.getCurrentList().get(position));
+    }
+
+    private void onRowClicked(EmployeeViewHolder holder, View view) {
+        EmployeeRow row = holder.row;
+        if (row == null) {
+            return;
+        }
+        if (view == holder.itemView) {
+            toggleExpanded(holder.getAdapterPosition());
+            return;
+        }
+
+        // Call and Message buttons
+        Context context = view.getContext();
+        if (!row.hasPhone()) {
+            Toast.makeText(context, "No phone number available for " + row.getEmployee().getName(), Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent intent;
+        if (view == holder.btnCall) {
+            intent = new Intent(Intent.ACTION_DIAL);
+            intent.setData(Uri.parse(row.getDialUri()));
+        } else {
+            intent = new Intent(Intent.ACTION_SENDTO);
+            intent.setData(Uri.parse(row.getMessageUri()));
+        }
+        context.startActivity(intent);
     }
 
     @Override
     public int getItemCount() {
-        return filteredEmployees.size();
+        return differ.getCurrentList().size();
     }
 
-    public void filter(String query) {
-        filteredEmployees.clear();
-        if (query.isEmpty()) {
-            filteredEmployees.addAll(originalEmployees);
-        } else {
-            for (Employee employee : originalEmployees) {
-                if (employee.getName().toLowerCase().contains(query.toLowerCase())) {
-                    filteredEmployees.add(employee);
-                }
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
+    private void toggleExpanded(int position) {
+        if (position == RecyclerView.NO_POSITION) {
+            return; // Row is being removed by a pending diff
+        }
+        // Tracked by ID so refiltering can't move it
+        long clickedId = differ.getCurrentList().get(position).getId();
+        long expandedId = binder.getExpandedId();
+        int previousPosition = positionOf(expandedId);
+
+        binder.setExpandedId(clickedId == expandedId ? EmployeeRowBinder.NO_ID : clickedId);
+        if (previousPosition != RecyclerView.NO_POSITION) {
+            notifyItemChanged(previousPosition); // Collapse previous tray
+        }
+        if (previousPosition != position) {
+            notifyItemChanged(position); // Expand current tray
+        }
+    }
+
+    private int positionOf(long id) {
+        if (id == EmployeeRowBinder.NO_ID) {
+            return RecyclerView.NO_POSITION;
+        }
+        List<EmployeeRow> current = differ.getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i).getId() == id) {
+                return i;
             }
         }
-        notifyDataSetChanged();
+        return RecyclerView.NO_POSITION;
+    }
+
+    public void filter(String query) {
+        currentQuery = query;
+        // Matches name, crew, job, foreman and phone numbers through the prebuilt index
+        differ.submitList(binder.rowsOf(searchIndex.search(query)));
     }
 
-    static class EmployeeViewHolder extends RecyclerView.ViewHolder {
+    static class EmployeeViewHolder extends RecyclerView.ViewHolder implements EmployeeRowBinder.RowView {
         TextView tvEmployeeName, tvEmployeePhone, tvShift, tvJob, tvForeman, tvForemanPhone, tvCrew, tvJobAddress;
         LinearLayout trayLayout;
 
         Button btnCall, btnMessage;
+        EmployeeRow row; // Currently bound row
 
         public EmployeeViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -125,13 +163,59 @@ public class EmployeeAdapter extends RecyclerView.Adapter<EmployeeAdapter.Employ
             btnCall = itemView.findViewById(R.id.btnCall);
             btnMessage = itemView.findViewById(R.id.btnMessage);
         }
+
+        @Override
+        public void setRow(EmployeeRow row) {
+            this.row = row;
+        }
+
+        @Override
+        public void setLabel(EmployeeRowBinder.Label label, CharSequence text) {
+            switch (label) {
+                case NAME:
+                    tvEmployeeName.setText(text);
+                    break;
+                case PHONE:
+                    tvEmployeePhone.setText(text);
+                    break;
+                case SHIFT:
+                    tvShift.setText(text);
+                    break;
+                case JOB:
+                    tvJob.setText(text);
+                    break;
+                case FOREMAN:
+                    tvForeman.setText(text);
+                    break;
+                case FOREMAN_PHONE:
+                    tvForemanPhone.setText(text);
+                    break;
+                case CREW:
+                    tvCrew.setText(text);
+                    break;
+                default:
+                    tvJobAddress.setText(text);
+                    break;
+            }
+        }
+
+        @Override
+        public void setExpanded(boolean expanded) {
+            trayLayout.setVisibility(expanded ? View.VISIBLE : View.GONE);
+        }
     }
 
     public void updateList(List<Employee> originalList, List<Employee> filteredList) {
-        // Update only the filteredEmployees list
-        filteredEmployees.clear();
-        filteredEmployees.addAll(filteredList);
-        notifyDataSetChanged();
+        // Update only the displayed list; the differ dispatches the fine-grained changes
+        differ.submitList(binder.rowsOf(filteredList));
     }
 
+    /**
+     * Replaces the whole roster, e.g. when a fresh schedule arrives, keeping the current search applied.
+     */
+    public void setEmployees(List<Employee> employees) {
+        binder.setRoster(employees);
+        searchIndex = new EmployeeSearchIndex(employees);
+        filter(currentQuery);
+    }
 }
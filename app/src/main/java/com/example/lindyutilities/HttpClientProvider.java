@@ -0,0 +1,54 @@
+package com.example.lindyutilities;
+
+import android.content.Context;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
+
+/**
+ * Owns the one OkHttpClient the whole app shares.
+ * <p>
+ * Sharing a client means the activity and every worker run reuse the same connection pool and dispatcher
+ * threads instead of each paying for a cold TCP/TLS handshake.
+ * <p>
+ * There is deliberately no HTTP disk cache: the server picks the employee from the session cookie, not the
+ * URL, so a URL-keyed cache could hand one employee's page to another. Revalidation is done by the
+ * schedule source's own per-employee validators instead.
+ */
+public final class HttpClientProvider {
+
+    private static final int MAX_REQUESTS = 4;
+    private static final int MAX_REQUESTS_PER_HOST = 2;
+
+    private static OkHttpClient client;
+
+    private HttpClientProvider() {
+    }
+
+    public static synchronized OkHttpClient get(Context context) {
+        if (client == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+            client = new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(new ConnectionPool(2, 5, TimeUnit.MINUTES))
+                    // Cellular links: give the handshake some room, but never hang a worker run forever
+                    .connectTimeout(15, TimeUnit.SECONDS)
+                    .readTimeout(30, TimeUnit.SECONDS)
+                    .writeTimeout(15, TimeUnit.SECONDS)
+                    .callTimeout(60, TimeUnit.SECONDS)
+                    .retryOnConnectionFailure(true)
+                    // Advertises "br,gzip" and decodes either; plain gzip alone is already transparent
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    .eventListenerFactory(CallTimingListener.FACTORY)
+                    .build();
+        }
+        return client;
+    }
+}
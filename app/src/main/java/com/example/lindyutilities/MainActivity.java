@@ -11,6 +11,7 @@ import android.os.Bundle;
 import android.os.PowerManager;
 import android.provider.Settings;
 import android.text.InputType;
+import android.text.format.DateUtils;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
@@ -25,26 +26,38 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import androidx.work.ExistingPeriodicWorkPolicy;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 public class MainActivity extends AppCompatActivity {
 
     private static final String PREFS_NAME = "LindyUtilitiesPrefs";
     private static final String EMPLOYEE_ID_KEY = "employeeId";
+    private static final String CREW_IDS_KEY = "crewEmployeeIds";
+    private static final int DEBUG_TAPS = 5;
+    private static final long DEBUG_TAP_WINDOW_MILLIS = 3000;
+    private static final long STALE_AFTER_MILLIS = 15 * 60 * 1000;
 
     TextView tvMySchedule, tvMyShift, tvMyJob, tvMyForeman, tvMyAddress, tvMyForemanPhone;
     String employeeId;
     Button sortButton, btnGetDirections;
     EmployeeAdapter adapter;
+    RecyclerView recyclerView;
+    androidx.appcompat.widget.SearchView searchView;
     private List<Employee> originalEmployeeList;
+    private FacetIndex facetIndex;
+    private Schedule shownSchedule;
+    private List<Employee> shownCrewRoster;
+    private ScheduleRepository repository;
+    private final ScheduleRepository.Observer scheduleObserver = this::onScheduleState;
+    private int debugTaps = 0;
+    private long firstDebugTapAt = 0;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -67,10 +80,10 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        RecyclerView recyclerView = findViewById(R.id.rvEmployees);
+        recyclerView = findViewById(R.id.rvEmployees);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
 
-        androidx.appcompat.widget.SearchView searchView = findViewById(R.id.searchView);
+        searchView = findViewById(R.id.searchView);
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
             if (ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
                     != PackageManager.PERMISSION_GRANTED) {
@@ -81,85 +94,148 @@ public class MainActivity extends AppCompatActivity {
         }
         requestBatteryOptimizationException();
 
-        String workerName = employeeId;
+        // Background checks chain themselves at intervals learned from when the schedule usually changes;
+        // a chain that is already running (e.g. across a rotation) is left alone
+        ScheduleWorker.schedule(this, employeeId);
 
-        // Cancel any existing workers with the same name
-        WorkManager.getInstance(this).cancelUniqueWork(workerName);
+        // And a fetch while charging on Wi-Fi, so the schedule history stays complete
+        SchedulePrefetchWorker.schedule(this, employeeId);
 
-        PeriodicWorkRequest scheduleWorkRequest = new PeriodicWorkRequest.Builder(
-                ScheduleWorker.class,
-                10, TimeUnit.MINUTES
-        ).build();
+        // Foremen can long-press the header to add the crews they cover
+        tvMySchedule.setOnLongClickListener(v -> {
+            promptForCrewIds();
+            return true;
+        });
+
+        // Tapping the header a few times in a row opens the debug stats screen
+        tvMySchedule.setOnClickListener(v -> onHeaderTapped());
+
+        // Serve the last known schedule at once and revalidate in the background
+        repository = ScheduleRepository.get(this, employeeId);
+        repository.observe(scheduleObserver);
+    }
 
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                workerName,
-                ExistingPeriodicWorkPolicy.REPLACE,
-                scheduleWorkRequest
-        );
+    private void onScheduleState(ScheduleRepository.State state) {
+        Schedule schedule = state.getSchedule();
+        if (schedule == null) {
+            if (state.getError() != null) {
+                tvMySchedule.setText("Error: " + errorMessage(state));
+            }
+            return;
+        }
 
-        // Fetch the schedule
-        DailyScheduleHelper dailyScheduleHelper = new DailyScheduleHelper(employeeId, this);
-        dailyScheduleHelper.fetchSchedule(new DailyScheduleHelper.ScheduleCallback() {
+        // Only rebind when the schedule or the extra crews differ from what is already on screen
+        if (shownSchedule == null || state.getCrewRoster() != shownCrewRoster
+                || !ScheduleDiff.compute(shownSchedule, schedule).isEmpty()) {
+            showSchedule(schedule.getScheduleDate(), schedule.getMySchedule(), schedule.getEmployees(),
+                    state.getCrewRoster());
+        }
+        showScheduleAge(state);
+
+        if (state.isRevalidated()) {
+            // Foremen's extra crews; the repository fetches each set once and keeps them with the schedule
+            repository.fetchCrews(getCachedCrewIds());
+        }
+        if (state.getError() != null) {
+            String message = state.getErrorReason() == null ? "Unable to refresh." : errorMessage(state);
+            Toast.makeText(this, message + " Showing saved schedule.", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private static String errorMessage(ScheduleRepository.State state) {
+        if (state.getErrorReason() == null) {
+            return "Unable to load schedule.";
+        }
+        switch (state.getErrorReason()) {
+            case AUTH_EXPIRED:
+                return "The schedule site asked for a login. Check your employee ID.";
+            case LAYOUT_CHANGED:
+                return "The schedule page has changed and can't be read.";
+            default:
+                return "The schedule page was cut off.";
+        }
+    }
+
+    /**
+     * Marks the header with how old the schedule is once it is old enough to matter.
+     */
+    private void showScheduleAge(ScheduleRepository.State state) {
+        if (state.getSchedule().getMySchedule() == null) {
+            return;
+        }
+        String header = "My Schedule for " + state.getSchedule().getScheduleDate();
+        long now = System.currentTimeMillis();
+        if (state.getAgeMillis(now) > STALE_AFTER_MILLIS) {
+            header += "\n(updated " + DateUtils.getRelativeTimeSpanString(state.getVerifiedAt(), now,
+                    DateUtils.MINUTE_IN_MILLIS) + ")";
+        }
+        tvMySchedule.setText(header);
+    }
+
+    /**
+     * @param crewRoster Rows from the extra crews a foreman covers, merged into the list; may be empty.
+     */
+    private void showSchedule(String scheduleDate, Employee mySchedule, List<Employee> ownRoster,
+                              List<Employee> crewRoster) {
+        shownSchedule = new Schedule(scheduleDate, mySchedule, ownRoster);
+        shownCrewRoster = crewRoster;
+        // You're on your crewmates' pages too, but already shown above the list
+        List<Employee> employees = crewRoster.isEmpty() ? ownRoster
+                : BatchScheduleFetcher.mergeRosters(mySchedule, Arrays.asList(ownRoster, crewRoster));
+        if (mySchedule != null) {
+            tvMySchedule.setText("My Schedule for " + scheduleDate);
+            tvMyShift.setText("Shift: " + mySchedule.getShift());
+            tvMyJob.setText("Job: " + mySchedule.getJob());
+            tvMyForeman.setText("Foreman: " + mySchedule.getForeman());
+            tvMyForemanPhone.setText("Foreman Phone: " + mySchedule.getForemanPhone());
+            tvMyAddress.setText("Job Address: " + mySchedule.getJobAddress());
+            btnGetDirections.setVisibility(View.VISIBLE);
+        }
+        btnGetDirections.setEnabled(!mySchedule.getJobAddress().equals("N/A"));
+        btnGetDirections.setOnClickListener(v -> openGoogleMapsWithAddress(mySchedule.getJobAddress()));
+        showRoster(employees);
+
+        searchView.setOnQueryTextListener(new androidx.appcompat.widget.SearchView.OnQueryTextListener() {
             @Override
-            public void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees) {
-                runOnUiThread(() -> {
-                    if (mySchedule != null) {
-                        tvMySchedule.setText("My Schedule for " + scheduleDate);
-                        tvMyShift.setText("Shift: " + mySchedule.getShift());
-                        tvMyJob.setText("Job: " + mySchedule.getJob());
-                        tvMyForeman.setText("Foreman: " + mySchedule.getForeman());
-                        tvMyForemanPhone.setText("Foreman Phone: " + mySchedule.getForemanPhone());
-                        tvMyAddress.setText("Job Address: " + mySchedule.getJobAddress());
-                        btnGetDirections.setVisibility(View.VISIBLE);
-                    }
-                    btnGetDirections.setEnabled(!mySchedule.getJobAddress().equals("N/A"));
-                    btnGetDirections.setOnClickListener(v -> openGoogleMapsWithAddress(mySchedule.getJobAddress()));
-                    originalEmployeeList = employees;
-                    adapter = new EmployeeAdapter(employees);
-                    recyclerView.setAdapter(adapter);
-
-                    searchView.setOnQueryTextListener(new androidx.appcompat.widget.SearchView.OnQueryTextListener() {
-                        @Override
-                        public boolean onQueryTextSubmit(String query) {
-                            adapter.filter(query);
-                            return false;
-                        }
-
-                        @Override
-                        public boolean onQueryTextChange(String newText) {
-                            adapter.filter(newText);
-                            return false;
-                        }
-                    });
-
-                    sortButton.setOnClickListener(v -> showSortDialog(employees));
-                });
+            public boolean onQueryTextSubmit(String query) {
+                adapter.filter(query);
+                return false;
             }
 
             @Override
-            public void onError(String error) {
-                runOnUiThread(() -> tvMySchedule.setText("Error: Unable to load schedule"));
+            public boolean onQueryTextChange(String newText) {
+                adapter.filter(newText);
+                return false;
             }
         });
+
+        sortButton.setOnClickListener(v -> showSortDialog(employees));
     }
 
-    private void showSortDialog(List<Employee> employees) {
-        // Extract unique job sites from the original list
-        Set<String> jobSites = new HashSet<>();
-        for (Employee employee : originalEmployeeList) {
-            jobSites.add(employee.getJob());
+    private void showRoster(List<Employee> employees) {
+        originalEmployeeList = employees;
+        facetIndex = new FacetIndex(employees);
+        if (adapter == null) {
+            adapter = new EmployeeAdapter(employees);
+            recyclerView.setAdapter(adapter);
+        } else {
+            adapter.setEmployees(employees); // Reconcile in place so only changed rows rebind
         }
+    }
 
-        // Convert to array for the dialog
-        String[] jobArray = jobSites.toArray(new String[0]);
+    private void showSortDialog(List<Employee> employees) {
+        // Job sites with live head counts, computed once per schedule
+        Map<String, Integer> jobCounts = facetIndex.jobCounts();
+        String[] jobArray = jobCounts.keySet().toArray(new String[0]);
+        String[] jobLabels = labelsWithCounts(jobCounts);
         boolean[] checkedJobs = new boolean[jobArray.length];
-        List<String> selectedJobs = new ArrayList<>();
+        Set<String> selectedJobs = new HashSet<>();
 
         // Create and show the main job dialog
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Select Job Sites");
 
-        builder.setMultiChoiceItems(jobArray, checkedJobs, (dialog, which, isChecked) -> {
+        builder.setMultiChoiceItems(jobLabels, checkedJobs, (dialog, which, isChecked) -> {
             if (isChecked) {
                 selectedJobs.add(jobArray[which]);
             } else {
@@ -183,25 +259,19 @@ public class MainActivity extends AppCompatActivity {
         builder.show();
     }
 
-    private void showCrewDialog(List<String> selectedJobs) {
-        // Extract unique crews for the selected jobs
-        Set<String> crews = new HashSet<>();
-        for (Employee employee : originalEmployeeList) {
-            if (selectedJobs.contains(employee.getJob())) {
-                crews.add(employee.getCrew());
-            }
-        }
-
-        // Convert to array for the dialog
-        String[] crewArray = crews.toArray(new String[0]);
+    private void showCrewDialog(Set<String> selectedJobs) {
+        // Crews working the selected jobs, counted within those jobs only
+        Map<String, Integer> crewCounts = facetIndex.crewCounts(selectedJobs);
+        String[] crewArray = crewCounts.keySet().toArray(new String[0]);
+        String[] crewLabels = labelsWithCounts(crewCounts);
         boolean[] checkedCrews = new boolean[crewArray.length];
-        List<String> selectedCrews = new ArrayList<>();
+        Set<String> selectedCrews = new HashSet<>();
 
         // Create and show the crew dialog
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Select Crews");
 
-        builder.setMultiChoiceItems(crewArray, checkedCrews, (dialog, which, isChecked) -> {
+        builder.setMultiChoiceItems(crewLabels, checkedCrews, (dialog, which, isChecked) -> {
             if (isChecked) {
                 selectedCrews.add(crewArray[which]);
             } else {
@@ -210,13 +280,8 @@ public class MainActivity extends AppCompatActivity {
         });
 
         builder.setPositiveButton("Apply", (dialog, which) -> {
-            // Filter employees based on selected jobs and crews
-            List<Employee> filteredList = new ArrayList<>();
-            for (Employee employee : originalEmployeeList) {
-                if (selectedJobs.contains(employee.getJob()) && selectedCrews.contains(employee.getCrew())) {
-                    filteredList.add(employee);
-                }
-            }
+            // Filter employees based on selected jobs and crews; no crew selected keeps every crew on those jobs
+            List<Employee> filteredList = facetIndex.select(selectedJobs, selectedCrews);
 
             // Update the adapter with the filtered list
             adapter.updateList(originalEmployeeList, filteredList);
@@ -226,6 +291,27 @@ public class MainActivity extends AppCompatActivity {
         builder.show();
     }
 
+    private static String[] labelsWithCounts(Map<String, Integer> counts) {
+        String[] labels = new String[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            labels[i++] = entry.getKey() + " (" + entry.getValue() + ")";
+        }
+        return labels;
+    }
+
+    private void onHeaderTapped() {
+        long now = System.currentTimeMillis();
+        if (now - firstDebugTapAt > DEBUG_TAP_WINDOW_MILLIS) {
+            firstDebugTapAt = now;
+            debugTaps = 0;
+        }
+        if (++debugTaps == DEBUG_TAPS) {
+            debugTaps = 0;
+            startActivity(new Intent(this, DebugStatsActivity.class));
+        }
+    }
+
     private String getCachedEmployeeId() {
         SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
         return prefs.getString(EMPLOYEE_ID_KEY, null);
@@ -236,6 +322,37 @@ public class MainActivity extends AppCompatActivity {
         prefs.edit().putString(EMPLOYEE_ID_KEY, employeeId).apply();
     }
 
+    private Set<String> getCachedCrewIds() {
+        SharedPreferences prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+        Set<String> crewIds = new LinkedHashSet<>();
+        for (String id : prefs.getString(CREW_IDS_KEY, "").split(",")) {
+            if (!id.trim().isEmpty()) {
+                crewIds.add(id.trim());
+            }
+        }
+        return crewIds;
+    }
+
+    private void promptForCrewIds() {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle("Crew Employee IDs (comma separated)");
+
+        final EditText input = new EditText(this);
+        input.setInputType(InputType.TYPE_CLASS_TEXT);
+        input.setText(getSharedPreferences(PREFS_NAME, MODE_PRIVATE).getString(CREW_IDS_KEY, ""));
+        builder.setView(input);
+
+        builder.setPositiveButton("Save", (dialog, which) -> {
+            getSharedPreferences(PREFS_NAME, MODE_PRIVATE).edit()
+                    .putString(CREW_IDS_KEY, input.getText().toString().trim())
+                    .apply();
+            recreate(); // Restart the activity to fetch the new crews
+        });
+
+        builder.setNegativeButton("Cancel", null);
+        builder.show();
+    }
+
     private void promptForEmployeeId() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Enter Your Employee ID");
@@ -248,6 +365,7 @@ public class MainActivity extends AppCompatActivity {
             String enteredId = input.getText().toString().trim();
             if (!enteredId.isEmpty()) {
                 saveEmployeeId(enteredId);
+                ScheduleWorker.restart(this, employeeId, enteredId); // The only place the chain is replaced
                 employeeId = enteredId;
                 recreate(); // Restart the activity to use the new employee ID
             } else {
@@ -263,7 +381,10 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        WorkManager.getInstance(this).cancelAllWork();
+        if (repository != null) {
+            repository.removeObserver(scheduleObserver);
+        }
+        // Background checks and the prefetch are meant to outlive the screen; leave them scheduled
     }
 
     public void openGoogleMapsWithAddress(String address) {
@@ -0,0 +1,77 @@
+package com.example.lindyutilities;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+
+/**
+ * Owns the schedule update notification channel and the one notification posted on it.
+ */
+public class ScheduleNotifier {
+
+    private static final String CHANNEL_ID = "schedule_updates";
+    private static final String LEGACY_CHANNEL_ID = "schedule_updates_channel"; // Used by older worker builds
+    private static final int NOTIFICATION_ID = 1;
+
+    private final Context context;
+
+    public ScheduleNotifier(Context context) {
+        this.context = context.getApplicationContext();
+        createNotificationChannel();
+    }
+
+    /**
+     * Posts (or replaces) the update notification with a summary of what changed.
+     */
+    public void notifyChanged(String scheduleDate, ScheduleDiff diff) {
+        // Create an Intent to open MainActivity
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                context,
+                0, // Request code
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE // Ensure the intent is immutable
+        );
+
+        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_launcher_foreground)
+                .setContentTitle("Schedule Updated")
+                .setContentText(diff.summary(scheduleDate))
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setAutoCancel(true) // Dismiss the notification when clicked
+                .setContentIntent(pendingIntent)
+                .build();
+
+        NotificationManager notificationManager =
+                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager != null) {
+            notificationManager.notify(NOTIFICATION_ID, notification);
+        }
+    }
+
+    /**
+     * Creates the notification channel for schedule updates (required for Android 8.0+).
+     */
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Schedule Updates",
+                    NotificationManager.IMPORTANCE_HIGH);
+            channel.setDescription("Notifications for schedule updates.");
+
+            NotificationManager notificationManager =
+                    (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            if (notificationManager != null) {
+                notificationManager.createNotificationChannel(channel);
+                notificationManager.deleteNotificationChannel(LEGACY_CHANNEL_ID);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.lindyutilities;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.WorkerParameters;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Off-peak fetch of the schedule page while the phone is charging on Wi-Fi, so the newest published day
+ * lands in the {@link ScheduleArchive} even when the adaptive check chain is asleep. The page only ever
+ * shows one day, so this is one request per run; the pipeline archives it if it is new. It is an ordinary
+ * background check, so a change it finds is notified like any other.
+ */
+public class SchedulePrefetchWorker extends ListenableWorker {
+
+    private static final String PREFS_NAME = "LindyUtilitiesPrefs";
+    private static final String EMPLOYEE_ID_KEY = "employeeId";
+    private static final String WORK_NAME_PREFIX = "prefetch_";
+    private static final long INTERVAL_HOURS = 12;
+
+    public SchedulePrefetchWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    /**
+     * Schedules the prefetch for an employee, keeping an existing schedule if there is one.
+     */
+    static void schedule(Context context, String employeeId) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(SchedulePrefetchWorker.class,
+                INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(WORK_NAME_PREFIX + employeeId,
+                ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<Result> startWork() {
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            getBackgroundExecutor().execute(() -> {
+                String employeeId = getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                        .getString(EMPLOYEE_ID_KEY, null);
+                if (employeeId == null || employeeId.isEmpty()) {
+                    completer.set(Result.failure());
+                    return;
+                }
+
+                // The same check as the adaptive chain, so a change found here is notified (once) and
+                // recorded for the polling policy instead of being saved silently
+                ScheduleRepository.get(getApplicationContext(), employeeId).checkForUpdates(
+                        new DailyScheduleHelper.ScheduleCallback() {
+                            @Override
+                            public void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees) {
+                                Log.d("SchedulePrefetchWorker", "Prefetched schedule for " + scheduleDate);
+                                completer.set(Result.success());
+                            }
+
+                            @Override
+                            public void onNotModified() {
+                                completer.set(Result.success());
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                Log.e("SchedulePrefetchWorker", "Prefetch failed: " + error);
+                                completer.set(Result.success()); // The next period tries again
+                            }
+                        });
+            });
+            return "SchedulePrefetchWorker fetch";
+        });
+    }
+}
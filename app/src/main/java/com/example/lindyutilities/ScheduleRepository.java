@@ -0,0 +1,362 @@
+package com.example.lindyutilities;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline-first access to one employee's schedule.
+ * <p>
+ * Observers get the last known schedule straight away (from memory, else from the saved snapshot), and a
+ * background revalidation through the update pipeline follows. Every change of state, whether fresh data,
+ * a refresh starting or a failed refresh, is published to observers on the main thread together with
+ * the time the data was last confirmed against the server.
+ * <p>
+ * The rows of any extra crews a foreman covers are fetched once per set of crew IDs and kept next to the
+ * schedule, so every later state carries them too.
+ */
+public class ScheduleRepository {
+
+    private static final String PREFS_NAME = "LindyUtilitiesPrefs";
+    private static final String VERIFIED_AT_KEY = "scheduleVerifiedAt";
+    private static final int CREW_FETCH_PARALLELISM = 3;
+
+    private static final Map<String, ScheduleRepository> INSTANCES = new HashMap<>();
+    private static final ExecutorService DISK = Executors.newSingleThreadExecutor();
+
+    /**
+     * A snapshot of what the repository knows.
+     */
+    public static final class State {
+        private final Schedule schedule;
+        private final long verifiedAt;
+        private final boolean refreshing;
+        private final boolean revalidated;
+        private final String error;
+        private final ScheduleParseException.Reason errorReason;
+        private final List<Employee> crewRoster;
+
+        State(Schedule schedule, long verifiedAt, boolean refreshing, boolean revalidated, String error,
+              ScheduleParseException.Reason errorReason, List<Employee> crewRoster) {
+            this.schedule = schedule;
+            this.crewRoster = crewRoster;
+            this.verifiedAt = verifiedAt;
+            this.refreshing = refreshing;
+            this.revalidated = revalidated;
+            this.error = error;
+            this.errorReason = errorReason;
+        }
+
+        /**
+         * @return The last known schedule, or null if there is none yet.
+         */
+        public Schedule getSchedule() {
+            return schedule;
+        }
+
+        /**
+         * @return When the schedule was last confirmed against the server (epoch millis), or 0 if unknown.
+         */
+        public long getVerifiedAt() {
+            return verifiedAt;
+        }
+
+        /**
+         * @return How old the schedule is, or -1 if unknown.
+         */
+        public long getAgeMillis(long now) {
+            return verifiedAt > 0 ? Math.max(0, now - verifiedAt) : -1;
+        }
+
+        /**
+         * @return Whether a {@link ScheduleRepository#refresh()} is running. Background checks don't count.
+         */
+        public boolean isRefreshing() {
+            return refreshing;
+        }
+
+        /**
+         * @return Whether the schedule has been confirmed against the server since the process started.
+         */
+        public boolean isRevalidated() {
+            return revalidated;
+        }
+
+        /**
+         * @return The error from the refresh that just failed. Only set on the update that reports it.
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return Why the page was rejected, if the error was a page that isn't a schedule; otherwise null.
+         */
+        public ScheduleParseException.Reason getErrorReason() {
+            return errorReason;
+        }
+
+        /**
+         * @return Rows from the extra crews' pages, possibly including rows also on your own page; empty
+         * until they have been fetched. The same list instance until the crews are fetched again.
+         */
+        public List<Employee> getCrewRoster() {
+            return crewRoster;
+        }
+    }
+
+    /**
+     * Receives state updates on the main thread.
+     */
+    public interface Observer {
+        void onChanged(State state);
+    }
+
+    private final String employeeId;
+    private final Context context;
+    private final DailyScheduleHelper helper;
+    private final ScheduleSnapshotStore snapshotStore;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private State state = new State(null, 0, false, false, null, null, Collections.<Employee>emptyList());
+    private boolean loadStarted = false;
+    private Set<String> crewIds = Collections.emptySet(); // The crews fetched, or being fetched
+
+    private ScheduleRepository(Context context, String employeeId) {
+        this.employeeId = employeeId;
+        this.context = context.getApplicationContext();
+        this.helper = new DailyScheduleHelper(employeeId, this.context);
+        this.snapshotStore = new ScheduleSnapshotStore(this.context.getFilesDir(), employeeId);
+    }
+
+    public static ScheduleRepository get(Context context, String employeeId) {
+        synchronized (INSTANCES) {
+            ScheduleRepository repository = INSTANCES.get(employeeId);
+            if (repository == null) {
+                repository = new ScheduleRepository(context, employeeId);
+                INSTANCES.put(employeeId, repository);
+            }
+            return repository;
+        }
+    }
+
+    /**
+     * Subscribes to state updates, delivers the current state, and revalidates in the background.
+     */
+    public void observe(Observer observer) {
+        observers.add(observer);
+        State current;
+        synchronized (this) {
+            current = state;
+        }
+        if (current.getSchedule() != null) {
+            mainHandler.post(() -> {
+                if (observers.contains(observer)) {
+                    observer.onChanged(current);
+                }
+            });
+        }
+        loadSnapshot();
+        refresh();
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Revalidates against the server unless a refresh is already running. Concurrent and back-to-back
+     * refreshes are also coalesced by the update pipeline itself.
+     */
+    public void refresh() {
+        synchronized (this) {
+            if (state.isRefreshing()) {
+                return;
+            }
+            state = new State(state.getSchedule(), state.getVerifiedAt(), true, state.isRevalidated(), null, null,
+                    state.getCrewRoster());
+        }
+        publish(null, null);
+
+        helper.fetchSchedule(new DailyScheduleHelper.ScheduleCallback() {
+            @Override
+            public void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees) {
+                onVerified(new Schedule(scheduleDate, mySchedule, employees), true);
+            }
+
+            @Override
+            public void onError(String error) {
+                onFailed(error, null, true, null);
+            }
+
+            @Override
+            public void onInvalidPage(ScheduleParseException.Reason reason, String error) {
+                onFailed(error, reason, true, null);
+            }
+        });
+    }
+
+    /**
+     * The background check: runs the pipeline (which notifies on changes), keeps any observers in this
+     * process up to date, and reports to the caller like {@link DailyScheduleHelper#checkForUpdates}.
+     */
+    public void checkForUpdates(DailyScheduleHelper.ScheduleCallback callback) {
+        helper.checkForUpdates(new DailyScheduleHelper.ScheduleCallback() {
+            @Override
+            public void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees) {
+                onVerified(new Schedule(scheduleDate, mySchedule, employees), false);
+                callback.onSuccess(scheduleDate, mySchedule, employees);
+            }
+
+            @Override
+            public void onNotModified() {
+                onVerified(null, false);
+                callback.onNotModified();
+            }
+
+            @Override
+            public void onError(String error) {
+                onFailed(error, null, false, callback);
+            }
+
+            @Override
+            public void onInvalidPage(ScheduleParseException.Reason reason, String error) {
+                onFailed(error, reason, false, callback);
+            }
+        });
+    }
+
+    /**
+     * Fetches the pages of extra employee IDs a foreman covers and publishes their rows with the schedule.
+     * Does nothing if these crews were already fetched in this process; a new set replaces the old one.
+     */
+    public void fetchCrews(Set<String> ids) {
+        Set<String> requested = new LinkedHashSet<>(ids);
+        requested.remove(employeeId);
+        synchronized (this) {
+            if (requested.equals(crewIds)) {
+                return;
+            }
+            crewIds = requested;
+        }
+        if (requested.isEmpty()) {
+            onCrewsFetched(requested, Collections.<Employee>emptyList());
+            return;
+        }
+
+        BatchScheduleFetcher fetcher = new BatchScheduleFetcher(HttpClientProvider.get(context), CREW_FETCH_PARALLELISM);
+        fetcher.fetchAsync(requested, result -> {
+            for (Map.Entry<String, String> failure : result.getFailures().entrySet()) {
+                Log.e("CrewSchedules", "Failed to fetch crew " + failure.getKey() + ": " + failure.getValue());
+            }
+            Log.d("CrewSchedules", "Fetched " + result.getSchedules().size() + " crews, latency ms: "
+                    + result.getLatencyMillis());
+            if (result.getSchedules().isEmpty()) {
+                synchronized (this) {
+                    if (crewIds == requested) {
+                        crewIds = Collections.emptySet(); // Nothing came back; try again on the next call
+                    }
+                }
+                return;
+            }
+            onCrewsFetched(requested, result.getRoster());
+        });
+    }
+
+    private void onCrewsFetched(Set<String> requested, List<Employee> roster) {
+        synchronized (this) {
+            if (crewIds != requested) {
+                return; // Superseded by a newer set of crews
+            }
+            state = new State(state.getSchedule(), state.getVerifiedAt(), state.isRefreshing(), state.isRevalidated(),
+                    null, null, roster);
+        }
+        publish(null, null);
+    }
+
+    private void loadSnapshot() {
+        synchronized (this) {
+            if (loadStarted) {
+                return;
+            }
+            loadStarted = true;
+        }
+        DISK.execute(() -> {
+            Schedule snapshot = snapshotStore.load();
+            long verifiedAt = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                    .getLong(VERIFIED_AT_KEY + "_" + employeeId, snapshotStore.lastSaved());
+            synchronized (this) {
+                if (snapshot == null || state.getSchedule() != null) {
+                    return; // Nothing saved, or the network already answered
+                }
+                state = new State(snapshot, verifiedAt, state.isRefreshing(), false, null, null, state.getCrewRoster());
+            }
+            publish(null, null);
+        });
+    }
+
+    /**
+     * @param schedule   The confirmed schedule, or null if the one we have was confirmed unchanged.
+     * @param foreground Whether this ends the foreground {@link #refresh()}. A background check finishing
+     *                   leaves a refresh that is still running marked as refreshing.
+     */
+    private void onVerified(Schedule schedule, boolean foreground) {
+        long now = System.currentTimeMillis();
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putLong(VERIFIED_AT_KEY + "_" + employeeId, now)
+                .apply();
+        synchronized (this) {
+            Schedule current = schedule != null ? schedule : state.getSchedule();
+            state = new State(current, current != null ? now : state.getVerifiedAt(), state.isRefreshing() && !foreground,
+                    current != null, null, null, state.getCrewRoster());
+        }
+        publish(null, null);
+    }
+
+    private void onFailed(String error, ScheduleParseException.Reason reason, boolean foreground,
+                          DailyScheduleHelper.ScheduleCallback callback) {
+        synchronized (this) {
+            state = new State(state.getSchedule(), state.getVerifiedAt(), state.isRefreshing() && !foreground,
+                    state.isRevalidated(), null, null, state.getCrewRoster());
+        }
+        publish(error, reason);
+        if (callback == null) {
+            return;
+        }
+        if (reason != null) {
+            callback.onInvalidPage(reason, error);
+        } else {
+            callback.onError(error);
+        }
+    }
+
+    /**
+     * Sends the current state to every observer; the error, if any, is attached to this update only.
+     */
+    private void publish(String error, ScheduleParseException.Reason reason) {
+        State current;
+        synchronized (this) {
+            current = error == null ? state
+                    : new State(state.getSchedule(), state.getVerifiedAt(), state.isRefreshing(), state.isRevalidated(),
+                    error, reason, state.getCrewRoster());
+        }
+        mainHandler.post(() -> {
+            for (Observer observer : observers) {
+                observer.onChanged(current);
+            }
+        });
+    }
+}
@@ -1,141 +1,189 @@
 package com.example.lindyutilities;
 
-import android.app.Notification;
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
 import android.content.Context;
-import android.content.Intent;
-import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
-import androidx.core.app.NotificationCompat;
-import androidx.work.Worker;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
 import androidx.work.WorkerParameters;
 
-import java.time.LocalTime;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
-public class ScheduleWorker extends Worker {
+public class ScheduleWorker extends ListenableWorker {
 
-    private static final String CHANNEL_ID = "schedule_updates_channel";
-    private static final int NOTIFICATION_ID = 1;
     private static final String PREFS_NAME = "LindyUtilitiesPrefs";
     private static final String EMPLOYEE_ID_KEY = "employeeId";
-
-    private LocalTime currentTime, startTime, endTime;
+    private static final String POLLING_STATE_KEY = "pollingState";
+    private static final Object POLICY_LOCK = new Object(); // Guards the load-record-save of the polling state
 
     public ScheduleWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
     }
 
+    /**
+     * Runs the whole fetch, parse, diff, persist and notify pipeline, and only completes once it has
+     * finished, so WorkManager keeps the process alive for the request and sees failures for backoff.
+     */
+    @NonNull
     @Override
-    public Result doWork() {
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            currentTime = LocalTime.now();
-        }
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            startTime = LocalTime.of(13, 0); // 1:00 PM
-        }
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            endTime = LocalTime.of(23, 59); // 11:59 PM (just before midnight)
-        }
+    public ListenableFuture<Result> startWork() {
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            // startWork is called on the main thread; prefs and snapshot reads belong on the worker's executor
+            getBackgroundExecutor().execute(() -> {
+                try {
+                    run(completer);
+                } catch (RuntimeException e) {
+                    completer.setException(e);
+                }
+            });
+            return "ScheduleWorker fetch";
+        });
+    }
 
+    private void run(CallbackToFutureAdapter.Completer<Result> completer) {
         String employeeId = getCachedEmployeeId();
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            if (currentTime.isBefore(startTime) || currentTime.isAfter(endTime)) {
-                Log.d("ScheduleWorker", "Outside update window (1:00 PM - 12:00 AM). Skipping API call.");
-                return Result.success(); // Do nothing and exit successfully
-            }
-        }
         if (employeeId == null || employeeId.isEmpty()) {
             Log.e("ScheduleWorker", "Employee ID is missing. Please set it before running the worker.");
-            return Result.failure(); // Fail the work if employeeId is not available
+            completer.set(Result.failure()); // Fail the work if employeeId is not available
+            return;
         }
 
-        DailyScheduleHelper dailyScheduleHelper = new DailyScheduleHelper(employeeId, getApplicationContext());
+        Metrics.increment(Metrics.Counter.WORKER_RUN);
+        Context context = getApplicationContext();
+        AdaptivePollingPolicy policy = loadPolicy(context, employeeId);
+        if (!policy.isInWindow()) {
+            Metrics.increment(Metrics.Counter.WORKER_OUTSIDE_WINDOW);
+            // Constraints can hold a run past the window; just line up the next one
+            Log.d("ScheduleWorker", "Outside update window. Skipping API call.");
+            enqueueNext(context, employeeId, policy, ExistingWorkPolicy.APPEND_OR_REPLACE);
+            completer.set(Result.success());
+            return;
+        }
 
-        dailyScheduleHelper.fetchSchedule(new DailyScheduleHelper.ScheduleCallback() {
+        // Conditional fetch through the shared pipeline, which diffs, saves and notifies on its own; going
+        // through the repository also updates the app's screen if it happens to be open
+        ScheduleRepository.get(context, employeeId).checkForUpdates(new DailyScheduleHelper.ScheduleCallback() {
             @Override
             public void onSuccess(String scheduleDate, Employee employee, List<Employee> employees) {
-                String cachedDate = getCachedDate();
-                if (!scheduleDate.equals(cachedDate)) {
-                    updateCachedDate(scheduleDate); // Update the cached date
-                    sendNotification("Schedule Updated", "Your schedule has been updated for " + scheduleDate);
-                } else {
-                    Log.d("ScheduleWorker", "No schedule changes detected.");
+                finish(true);
+            }
+
+            @Override
+            public void onNotModified() {
+                Log.d("ScheduleWorker", "No schedule changes detected.");
+                finish(false);
+            }
+
+            private void finish(boolean changed) {
+                if (!changed) {
+                    recordCheck(context, employeeId, false); // Changes are recorded by DailyScheduleHelper
                 }
+                // Reload, since any update (including one started from the app) may have recorded a change
+                enqueueNext(context, employeeId, loadPolicy(context, employeeId), ExistingWorkPolicy.APPEND_OR_REPLACE);
+                completer.set(Result.success());
             }
 
             @Override
             public void onError(String error) {
-                Log.e("ScheduleWorker", "Failed to fetch schedule: " + error);
+                Log.e("ScheduleWorker", "Failed to fetch schedule (attempt " + getRunAttemptCount() + "): " + error);
+                Metrics.increment(Metrics.Counter.WORKER_RETRY);
+                completer.set(Result.retry()); // Let WorkManager back off and try again; the chain resumes after
             }
-        });
 
-        return Result.success();
+            @Override
+            public void onInvalidPage(ScheduleParseException.Reason reason, String error) {
+                if (reason == ScheduleParseException.Reason.TRUNCATED) {
+                    onError(error); // Likely a dropped connection; worth another try soon
+                    return;
+                }
+                // A login or unknown page won't fix itself in 30 seconds; wait for the next scheduled check
+                Log.e("ScheduleWorker", "Schedule page rejected (" + reason + "): " + error);
+                finish(false);
+            }
+        });
     }
 
-    // Helper methods for caching the employee ID and date
-    private String getCachedEmployeeId() {
-        Context context = getApplicationContext();
-        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getString(EMPLOYEE_ID_KEY, null);
+    /**
+     * Starts the background check chain for an employee unless it is already running. Each run schedules
+     * its successor at whatever delay the adaptive policy picks. Safe to call on every screen start: a
+     * check that is mid-fetch and the delay the chain last picked are both kept.
+     */
+    static void schedule(Context context, String employeeId) {
+        enqueueNext(context, employeeId, loadPolicy(context, employeeId), ExistingWorkPolicy.KEEP);
     }
 
-    private String getCachedDate() {
-        Context context = getApplicationContext();
-        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getString("cachedDate", "Not Found");
+    /**
+     * Replaces the check chain after the employee ID changes, dropping the previous ID's chain.
+     *
+     * @param previousEmployeeId May be null when there was none.
+     */
+    static void restart(Context context, String previousEmployeeId, String employeeId) {
+        if (previousEmployeeId != null && !previousEmployeeId.equals(employeeId)) {
+            WorkManager.getInstance(context).cancelUniqueWork(previousEmployeeId);
+        }
+        enqueueNext(context, employeeId, loadPolicy(context, employeeId), ExistingWorkPolicy.REPLACE);
     }
 
-    private void updateCachedDate(String date) {
-        Context context = getApplicationContext();
-        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .edit()
-                .putString("cachedDate", date)
-                .apply();
+    /**
+     * Records the outcome of a check in the employee's saved polling state. Every update that finds a
+     * change reports it here, whichever path started it, so the policy learns from all of them.
+     */
+    static void recordCheck(Context context, String employeeId, boolean changed) {
+        synchronized (POLICY_LOCK) {
+            AdaptivePollingPolicy policy = loadPolicy(context, employeeId);
+            policy.recordCheck(changed);
+            savePolicy(context, employeeId, policy);
+        }
     }
 
-    private void sendNotification(String title, String message) {
-        Context context = getApplicationContext();
-        NotificationManager notificationManager =
-                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-
-        // Create Notification Channel (required for Android 8.0+)
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                    CHANNEL_ID,
-                    "Schedule Updates",
-                    NotificationManager.IMPORTANCE_HIGH
-            );
-            notificationManager.createNotificationChannel(channel);
-        }
+    private static void enqueueNext(Context context, String employeeId, AdaptivePollingPolicy policy,
+                                    ExistingWorkPolicy existingWorkPolicy) {
+        long delayMillis = policy.nextDelayMillis();
+        Log.d("ScheduleWorker", "Next schedule check in " + TimeUnit.MILLISECONDS.toMinutes(delayMillis) + " min");
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
 
-        // Create an Intent to open MainActivity
-        Intent intent = new Intent(context, MainActivity.class);
-        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-
-        // Create the PendingIntent
-        PendingIntent pendingIntent = PendingIntent.getActivity(
-                context,
-                0, // Request code
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE // Ensure the intent is immutable
-        );
-
-        // Build and send the notification
-        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID)
-                .setSmallIcon(R.drawable.ic_launcher_foreground) // Replace with your app's icon
-                .setContentTitle(title)
-                .setContentText(message)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setAutoCancel(true) // Dismiss the notification when clicked
-                .setContentIntent(pendingIntent) // Set the PendingIntent
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ScheduleWorker.class)
+                .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS) // Failed fetches retry with backoff
                 .build();
 
-        notificationManager.notify(NOTIFICATION_ID, notification);
+        // APPEND_OR_REPLACE from inside a run queues the successor behind this run instead of cancelling it
+        WorkManager.getInstance(context).enqueueUniqueWork(employeeId, existingWorkPolicy, request);
+    }
+
+    private static AdaptivePollingPolicy loadPolicy(Context context, String employeeId) {
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(AdaptivePollingPolicy.Clock.SYSTEM, TimeZone.getDefault());
+        policy.restoreState(context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(POLLING_STATE_KEY + "_" + employeeId, null));
+        return policy;
+    }
+
+    private static void savePolicy(Context context, String employeeId, AdaptivePollingPolicy policy) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(POLLING_STATE_KEY + "_" + employeeId, policy.saveState())
+                .apply();
+    }
+
+    // Helper method for the cached employee ID
+    private String getCachedEmployeeId() {
+        Context context = getApplicationContext();
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(EMPLOYEE_ID_KEY, null);
     }
 }
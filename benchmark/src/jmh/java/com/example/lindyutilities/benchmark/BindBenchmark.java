@@ -0,0 +1,95 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.Employee;
+import com.example.lindyutilities.EmployeeRow;
+import com.example.lindyutilities.EmployeeRowBinder;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The data side of scrolling the whole roster once: the adapter's bind path through
+ * {@link EmployeeRowBinder} with precomputed {@link EmployeeRow}s, against the string concatenation it
+ * used to do. Run with {@code -prof gc};
+ * {@code bindRows} should report about 0 B/op in {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BindBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int rows;
+
+    private List<Employee> employees;
+    private EmployeeRowBinder binder;
+    private List<EmployeeRow> shown;
+
+    @Setup
+    public void setUp() throws IOException {
+        employees = new ScheduleParser().parse(new StringReader(SchedulePages.page(rows, 42))).getEmployees();
+        binder = new EmployeeRowBinder();
+        binder.setRoster(employees);
+        shown = binder.rowsOf(employees);
+    }
+
+    @Benchmark
+    public List<EmployeeRow> buildRows() {
+        EmployeeRowBinder fresh = new EmployeeRowBinder();
+        fresh.setRoster(employees);
+        return fresh.rowsOf(employees);
+    }
+
+    @Benchmark
+    public void bindRows(Blackhole blackhole) {
+        EmployeeRowBinder.RowView view = new EmployeeRowBinder.RowView() {
+            @Override
+            public void setRow(EmployeeRow row) {
+                blackhole.consume(row);
+            }
+
+            @Override
+            public void setLabel(EmployeeRowBinder.Label label, CharSequence text) {
+                blackhole.consume(text);
+            }
+
+            @Override
+            public void setExpanded(boolean expanded) {
+                blackhole.consume(expanded);
+            }
+        };
+        for (int i = 0; i < shown.size(); i++) {
+            binder.bind(view, shown.get(i));
+        }
+    }
+
+    @Benchmark
+    public void concatenatingBind(Blackhole blackhole) {
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            blackhole.consume("Name: " + employee.getName());
+            blackhole.consume("Phone: " + employee.getEmployeePhone());
+            blackhole.consume("Shift: " + employee.getShift());
+            blackhole.consume("Job: " + employee.getJob());
+            blackhole.consume("Foreman: " + employee.getForeman());
+            blackhole.consume("Foreman Phone: " + employee.getForemanPhone());
+            blackhole.consume("Crew: " + employee.getCrew());
+            blackhole.consume(employee.getJobAddress());
+            blackhole.consume(!employee.getEmployeePhone().equals("N/A"));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.Schedule;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleParser;
+import com.example.lindyutilities.SchedulePipeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a whole schedule page, with and without the MD5 fingerprint the update pipeline takes on the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int rows;
+
+    private String html;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        html = SchedulePages.page(rows, 42);
+        bytes = html.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Schedule parse() throws IOException {
+        return new ScheduleParser().parse(new StringReader(html));
+    }
+
+    @Benchmark
+    public String parseAndFingerprint() throws IOException {
+        // What the pipeline does with a fetched body: fingerprint it in place, then pre-scan and parse it
+        String fingerprint = SchedulePipeline.fingerprintOf(bytes);
+        Schedule schedule = new ScheduleParser().parse(bytes, StandardCharsets.UTF_8);
+        return schedule.getScheduleDate() + fingerprint;
+    }
+}
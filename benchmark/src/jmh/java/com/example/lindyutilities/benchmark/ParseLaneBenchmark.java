@@ -0,0 +1,103 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.ParseExecutor;
+import com.example.lindyutilities.Schedule;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Foreground time-to-data while a background poll is parsing: a 500-row page requested on screen right
+ * after a 5,000-row background parse started. {@code lanes} is the {@link ParseExecutor}; {@code fifo}
+ * is a single shared worker thread, roughly what parsing on whichever thread was free used to give.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseLaneBenchmark {
+
+    @Param({"lanes", "fifo"})
+    public String executor;
+
+    private byte[] foregroundPage;
+    private byte[] backgroundPage;
+    private ParseExecutor lanes;
+    private ExecutorService fifo;
+    private Future<?> backgroundFifo;
+    private CountDownLatch backgroundDone;
+
+    @Setup
+    public void setUp() {
+        foregroundPage = SchedulePages.page(500, 1).getBytes(StandardCharsets.UTF_8);
+        backgroundPage = SchedulePages.page(5000, 2).getBytes(StandardCharsets.UTF_8);
+        lanes = new ParseExecutor(2, "bench-parse");
+        fifo = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fifo.shutdownNow();
+    }
+
+    /**
+     * Starts the background poll's parse just before each measured foreground request.
+     */
+    @Setup(Level.Invocation)
+    public void startBackgroundPoll() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        backgroundDone = new CountDownLatch(1);
+        Runnable poll = () -> {
+            started.countDown();
+            parse(backgroundPage);
+            backgroundDone.countDown();
+        };
+        if (executor.equals("lanes")) {
+            lanes.submit(ParseExecutor.Lane.BACKGROUND, "poll", poll, backgroundDone::countDown);
+        } else {
+            backgroundFifo = fifo.submit(poll);
+        }
+        started.await();
+    }
+
+    @TearDown(Level.Invocation)
+    public void awaitBackgroundPoll() throws InterruptedException {
+        backgroundDone.await();
+    }
+
+    @Benchmark
+    public Schedule foregroundTimeToData() throws Exception {
+        FutureTask<Schedule> request = new FutureTask<>(() -> parse(foregroundPage));
+        if (executor.equals("lanes")) {
+            lanes.submit(ParseExecutor.Lane.FOREGROUND, null, request, () -> request.cancel(false));
+        } else {
+            fifo.execute(request);
+        }
+        return request.get();
+    }
+
+    private static Schedule parse(byte[] page) {
+        try {
+            return new ScheduleParser().parse(page, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.Employee;
+import com.example.lindyutilities.EmployeeSearchIndex;
+import com.example.lindyutilities.FacetIndex;
+import com.example.lindyutilities.Schedule;
+import com.example.lindyutilities.ScheduleDiff;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search, job/crew filtering and diffing over a parsed roster. The linear-scan variants reproduce the
+ * filtering the adapter and the sort dialog did before the indexes, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RosterBenchmark {
+
+    private static final String[] KEYSTROKES = {"e", "em", "emp", "empl", "employee", "employee 1", "employee 12"};
+    // Queries across the searchable fields, each ending in a miss, typed a keystroke at a time
+    private static final List<String> KEYSTROKES_TO_NO_MATCH = prefixesOf(
+            "employee 12x", "c1z", "foreman 3q", "(20x", "555-011x", "job 4z");
+
+    @Param({"50", "500", "5000"})
+    public int rows;
+
+    private Schedule schedule;
+    private Schedule edited;
+    private EmployeeSearchIndex searchIndex;
+    private FacetIndex facetIndex;
+    private List<String> selectedJobs;
+    private List<String> selectedCrews;
+
+    @Setup
+    public void setUp() throws IOException {
+        schedule = new ScheduleParser().parse(new StringReader(SchedulePages.page(rows, 42)));
+        edited = editedCopy(schedule);
+        searchIndex = new EmployeeSearchIndex(schedule.getEmployees());
+        facetIndex = new FacetIndex(schedule.getEmployees());
+        selectedJobs = Arrays.asList("Job 1", "Job 2");
+        selectedCrews = Collections.singletonList("C1");
+    }
+
+    @Benchmark
+    public EmployeeSearchIndex buildSearchIndex() {
+        return new EmployeeSearchIndex(schedule.getEmployees());
+    }
+
+    @Benchmark
+    public void searchWhileTyping(Blackhole blackhole) {
+        for (String query : KEYSTROKES) {
+            blackhole.consume(searchIndex.searchRows(query));
+        }
+        blackhole.consume(searchIndex.searchRows(""));
+    }
+
+    @Benchmark
+    public void searchWhileTypingToNoMatch(Blackhole blackhole) {
+        for (String query : KEYSTROKES_TO_NO_MATCH) {
+            blackhole.consume(searchIndex.searchRows(query));
+        }
+    }
+
+    @Benchmark
+    public void linearScanWhileTyping(Blackhole blackhole) {
+        for (String query : KEYSTROKES) {
+            blackhole.consume(linearScan(schedule.getEmployees(), query));
+        }
+    }
+
+    @Benchmark
+    public FacetIndex buildFacetIndex() {
+        return new FacetIndex(schedule.getEmployees());
+    }
+
+    @Benchmark
+    public List<Employee> facetSelect() {
+        return facetIndex.select(selectedJobs, selectedCrews);
+    }
+
+    @Benchmark
+    public List<Employee> listContainsSelect() {
+        List<Employee> filtered = new ArrayList<>();
+        for (Employee employee : schedule.getEmployees()) {
+            if (selectedJobs.contains(employee.getJob()) && selectedCrews.contains(employee.getCrew())) {
+                filtered.add(employee);
+            }
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public ScheduleDiff diff() {
+        return ScheduleDiff.compute(schedule, edited);
+    }
+
+    private static List<String> prefixesOf(String... queries) {
+        List<String> prefixes = new ArrayList<>();
+        for (String query : queries) {
+            for (int length = 1; length <= query.length(); length++) {
+                prefixes.add(query.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static List<Employee> linearScan(List<Employee> employees, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Employee> matches = new ArrayList<>();
+        for (Employee employee : employees) {
+            if (employee.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(employee);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The same roster with a handful of typical edits: a moved shift, a reassigned job and a new hire.
+     */
+    private static Schedule editedCopy(Schedule schedule) {
+        List<Employee> employees = new ArrayList<>(schedule.getEmployees());
+        for (int i = 0; i < employees.size(); i += Math.max(1, employees.size() / 5)) {
+            Employee e = employees.get(i);
+            employees.set(i, new Employee(e.getName(), "5:30 AM", "Job 0", e.getForeman(), e.getCrew(),
+                    e.getJobAddress(), e.getEmployeePhone(), e.getForemanPhone()));
+        }
+        employees.add(new Employee("New Hire", "7:00 AM", "Job 1", "Foreman 1", "C1", "N/A", "N/A", "N/A"));
+        return new Schedule(schedule.getScheduleDate(), schedule.getMySchedule(), employees);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.Employee;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleRowReader;
+import com.example.lindyutilities.StringPool;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every employee row of an already parsed table: the column reader against the per-row CSS
+ * selection and {@code html().split("<div")} it replaced. Divide the score by {@code rows} for the
+ * per-row cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RowExtractionBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int rows;
+
+    private final List<Element> employeeRows = new ArrayList<>();
+    private final List<Element> allRows = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Element table = Jsoup.parse(SchedulePages.page(rows, 42)).select("table.dailySchedule").get(1);
+        for (Element row : table.select("tr")) {
+            allRows.add(row);
+            if (row.hasClass("current") || row.hasClass("empRow")) {
+                employeeRows.add(row);
+            }
+        }
+    }
+
+    @Benchmark
+    public void columnReader(Blackhole blackhole) {
+        ScheduleRowReader reader = new ScheduleRowReader(new StringPool());
+        for (Element row : employeeRows) {
+            blackhole.consume(reader.read(row));
+        }
+        for (Element row : allRows) {
+            blackhole.consume(ScheduleRowReader.addressOf(row));
+        }
+    }
+
+    @Benchmark
+    public void selectorPerRow(Blackhole blackhole) {
+        for (Element row : employeeRows) {
+            blackhole.consume(selectEmployee(row));
+        }
+        for (Element row : allRows) {
+            blackhole.consume(row.select(".dailySchedule.pnm-comments").text());
+        }
+    }
+
+    // The previous parseEmployeeDetails, kept as the baseline
+    private static Employee selectEmployee(Element row) {
+        Elements columns = row.select("td");
+
+        String name = "N/A";
+        Element employeeColumn = columns.select(".dailySchedule.employee").first();
+        if (employeeColumn != null) {
+            name = employeeColumn.ownText();
+        }
+        String employeePhone = "N/A";
+        if (employeeColumn != null) {
+            Element phoneElement = employeeColumn.select("span.empComments").first();
+            if (phoneElement != null) {
+                employeePhone = phoneElement.text();
+            }
+        }
+        String shift = columns.select(".dailySchedule.shift").text();
+        String job = columns.select(".dailySchedule.job").html().split("<div")[0].trim();
+        String foreman = "N/A";
+        Element foremanColumn = columns.select(".dailySchedule.foreman").first();
+        if (foremanColumn != null) {
+            foreman = foremanColumn.ownText();
+        }
+        String foremanPhone = "N/A";
+        if (foremanColumn != null) {
+            Element foremanPhoneElement = foremanColumn.select("span.noWrap.empComments").first();
+            if (foremanPhoneElement != null) {
+                foremanPhone = foremanPhoneElement.text();
+            }
+        }
+        String crew = columns.select(".dailySchedule.crew").text();
+        return new Employee(name, shift, job, foreman, crew, "N/A", employeePhone, foremanPhone);
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.lindyutilities.benchmark;
+
+import com.example.lindyutilities.HttpScheduleSource;
+import com.example.lindyutilities.LatencyHistogram;
+import com.example.lindyutilities.Metrics;
+import com.example.lindyutilities.ParseExecutor;
+import com.example.lindyutilities.RunRecord;
+import com.example.lindyutilities.Schedule;
+import com.example.lindyutilities.ScheduleDiff;
+import com.example.lindyutilities.SchedulePages;
+import com.example.lindyutilities.ScheduleParseException;
+import com.example.lindyutilities.SchedulePipeline;
+import com.example.lindyutilities.ScheduleSnapshotStore;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+
+/**
+ * End-to-end load and latency harness: runs the schedule update pipeline over real HTTP against a local
+ * MockWebServer that injects bad-network conditions (slow first byte, throttled bodies, dropped
+ * connections, 5xx bursts, cut-off pages), and writes the numbers as a JSON report.
+ * <p>
+ * Each run is a cold background check: no validators and no snapshot, so every run fetches and parses the
+ * full page. Failed runs are retried the way {@code ScheduleWorker} does (errors and truncated pages retry,
+ * other rejected pages give up), except the harness retries at once and reports the backoff WorkManager
+ * would have waited instead.
+ * <p>
+ * Usage: {@code LoadHarness [rows] [runs per scenario] [report file]}, or {@code ./gradlew :benchmark:loadHarness}.
+ */
+public final class LoadHarness {
+
+    private static final String EMPLOYEE_ID = "1";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long WORKER_BACKOFF_MILLIS = 30_000; // ScheduleWorker's exponential backoff base
+    private static final long ATTEMPT_TIMEOUT_SECONDS = 90;
+
+    /**
+     * What goes wrong on the first failing requests of every run.
+     */
+    enum Failure {
+        NONE,
+        HTTP_503,
+        DROP_AT_START,
+        DROP_MID_BODY,
+        TRUNCATED_PAGE
+    }
+
+    /**
+     * Network conditions for one scenario. The first {@code failures} requests of a run fail; the rest get
+     * the page.
+     */
+    static final class Scenario {
+        final String name;
+        final long headersDelayMillis;
+        final long bytesPerSecond; // 0 for unthrottled
+        final Failure failure;
+        final int failures;
+
+        Scenario(String name, long headersDelayMillis, long bytesPerSecond, Failure failure, int failures) {
+            this.name = name;
+            this.headersDelayMillis = headersDelayMillis;
+            this.bytesPerSecond = bytesPerSecond;
+            this.failure = failure;
+            this.failures = failures;
+        }
+    }
+
+    static final Scenario[] SCENARIOS = {
+            new Scenario("baseline", 0, 0, Failure.NONE, 0),
+            new Scenario("slow-first-byte", 1500, 0, Failure.NONE, 0),
+            new Scenario("throttled-3g", 300, 256 * 1024, Failure.NONE, 0),
+            new Scenario("throttled-edge", 600, 32 * 1024, Failure.NONE, 0),
+            new Scenario("drop-at-start", 0, 0, Failure.DROP_AT_START, 1),
+            new Scenario("drop-mid-body", 0, 256 * 1024, Failure.DROP_MID_BODY, 1),
+            new Scenario("5xx-burst", 100, 0, Failure.HTTP_503, 3),
+            new Scenario("truncated-page", 0, 0, Failure.TRUNCATED_PAGE, 1),
+    };
+
+    /**
+     * Everything measured in one scenario.
+     */
+    static final class Result {
+        final Scenario scenario;
+        final LatencyHistogram firstByte = new LatencyHistogram();
+        final LatencyHistogram timeToData = new LatencyHistogram();
+        final LatencyHistogram fetch = new LatencyHistogram();
+        final LatencyHistogram parse = new LatencyHistogram();
+        final Map<RunRecord.Outcome, Integer> outcomes = new EnumMap<>(RunRecord.Outcome.class);
+        int succeeded = 0;
+        int failed = 0;
+        int attempts = 0;
+        int maxAttempts = 0;
+        int requests = 0;
+        long bytesRead = 0;
+        long backoffMillis = 0;
+
+        Result(Scenario scenario) {
+            this.scenario = scenario;
+        }
+    }
+
+    /**
+     * Times and byte counts of the calls in one run; OkHttp's own retries show up as extra calls.
+     */
+    private static final class CallStats extends EventListener {
+        volatile long firstByteNanos;
+        final AtomicLong bytes = new AtomicLong();
+
+        void reset() {
+            firstByteNanos = 0;
+            bytes.set(0);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            if (firstByteNanos == 0) {
+                firstByteNanos = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            bytes.addAndGet(byteCount);
+        }
+    }
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        File report = new File(args.length > 2 ? args[2] : "load-harness.json");
+
+        Metrics.setEnabled(true); // Stage timings come from each run's record
+        byte[] page = SchedulePages.page(rows, 1).getBytes(StandardCharsets.UTF_8);
+        ParseExecutor executor = new ParseExecutor(2, "harness-parse");
+        CallStats stats = new CallStats();
+        OkHttpClient client = new OkHttpClient.Builder()
+                // Same limits as the app's client
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(15, TimeUnit.SECONDS)
+                .callTimeout(60, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true)
+                .eventListener(stats)
+                .build();
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"rows\": ").append(rows)
+                .append(",\n  \"pageBytes\": ").append(page.length)
+                .append(",\n  \"runsPerScenario\": ").append(runs)
+                .append(",\n  \"scenarios\": [");
+        runScenario(SCENARIOS[0], page, runs, client, stats, executor); // Warm-up, so the JIT isn't measured
+        for (int i = 0; i < SCENARIOS.length; i++) {
+            Result result = runScenario(SCENARIOS[i], page, runs, client, stats, executor);
+            System.out.println(summary(result));
+            json.append(i == 0 ? "\n" : ",\n").append(toJson(result));
+        }
+        json.append("\n  ]\n}\n");
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(report), StandardCharsets.UTF_8)) {
+            out.write(json.toString());
+        }
+        System.out.println("Report written to " + report.getAbsolutePath());
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    static Result runScenario(Scenario scenario, byte[] page, int runs, OkHttpClient client, CallStats stats,
+                              ParseExecutor executor) throws Exception {
+        Result result = new Result(scenario);
+        AtomicInteger requestsThisRun = new AtomicInteger();
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return responseFor(scenario, page, requestsThisRun.getAndIncrement());
+            }
+        });
+        server.start();
+        try {
+            File dir = File.createTempFile("load-harness", "");
+            dir.delete();
+            for (int run = 0; run < runs; run++) {
+                dir.mkdirs();
+                requestsThisRun.set(0);
+                runOnce(result, new HttpScheduleSource(client, server.url("/").toString()), dir, stats, executor);
+                result.requests += requestsThisRun.get();
+                deleteContents(dir);
+                client.connectionPool().evictAll(); // Every run starts on a cold connection
+            }
+            dir.delete();
+        } finally {
+            server.shutdown();
+        }
+        return result;
+    }
+
+    private static MockResponse responseFor(Scenario scenario, byte[] page, int request) {
+        MockResponse response = new MockResponse()
+                .setHeader("Content-Type", "text/html; charset=utf-8")
+                .setHeadersDelay(scenario.headersDelayMillis, TimeUnit.MILLISECONDS);
+        if (scenario.bytesPerSecond > 0) {
+            response.throttleBody(scenario.bytesPerSecond / 10, 100, TimeUnit.MILLISECONDS);
+        }
+        if (request >= scenario.failures) {
+            return response.setBody(new Buffer().write(page));
+        }
+        switch (scenario.failure) {
+            case HTTP_503:
+                return response.setResponseCode(503).setBody("Service Unavailable");
+            case DROP_AT_START:
+                return response.setSocketPolicy(SocketPolicy.DISCONNECT_AT_START);
+            case DROP_MID_BODY:
+                return response.setBody(new Buffer().write(page))
+                        .setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+            case TRUNCATED_PAGE:
+                // A complete response whose body was cut short upstream, e.g. by a proxy
+                return response.setBody(new Buffer().write(page, 0, page.length / 2));
+            default:
+                return response.setBody(new Buffer().write(page));
+        }
+    }
+
+    /**
+     * One background check, retried like the worker would until it succeeds or gives up.
+     */
+    private static void runOnce(Result result, HttpScheduleSource source, File dir, CallStats stats,
+                                ParseExecutor executor) throws Exception {
+        long start = System.nanoTime();
+        stats.reset();
+        RunRecord.Outcome outcome = RunRecord.Outcome.ERROR;
+        RunRecord last = null;
+        int attempt = 0;
+        boolean retry = true;
+        while (retry && attempt < MAX_ATTEMPTS) {
+            attempt++;
+            if (attempt > 1) {
+                result.backoffMillis += WORKER_BACKOFF_MILLIS << (attempt - 2);
+            }
+            SchedulePipeline pipeline = new SchedulePipeline(EMPLOYEE_ID, source,
+                    new ScheduleSnapshotStore(dir, EMPLOYEE_ID), null, new MemoryValidatorStore(), executor);
+            last = Metrics.startRun(true);
+            CompletableFuture<Object> done = new CompletableFuture<>();
+            pipeline.newUpdate(ParseExecutor.Lane.BACKGROUND, last, new SchedulePipeline.Listener() {
+                @Override
+                public void onComplete(Schedule schedule, ScheduleDiff diff, RunRecord.Outcome outcome) {
+                    done.complete(outcome);
+                }
+
+                @Override
+                public void onInvalidPage(ScheduleParseException e) {
+                    done.complete(e.getReason());
+                }
+
+                @Override
+                public void onError(String error) {
+                    done.complete(RunRecord.Outcome.ERROR);
+                }
+            }).start();
+
+            Object ended = done.get(ATTEMPT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (ended instanceof ScheduleParseException.Reason) {
+                outcome = RunRecord.Outcome.INVALID_PAGE;
+                retry = ended == ScheduleParseException.Reason.TRUNCATED;
+            } else {
+                outcome = (RunRecord.Outcome) ended;
+                retry = outcome == RunRecord.Outcome.ERROR;
+            }
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        result.outcomes.merge(outcome, 1, Integer::sum);
+        result.attempts += attempt;
+        result.maxAttempts = Math.max(result.maxAttempts, attempt);
+        result.bytesRead += stats.bytes.get();
+        if (stats.firstByteNanos != 0) {
+            result.firstByte.record((stats.firstByteNanos - start) / 1000);
+        }
+        if (retry || outcome == RunRecord.Outcome.ERROR || outcome == RunRecord.Outcome.INVALID_PAGE) {
+            result.failed++;
+            return;
+        }
+        result.succeeded++;
+        result.timeToData.record(elapsedMicros);
+        if (last != null) {
+            result.fetch.record(last.getStageMicros(Metrics.Stage.FETCH));
+            result.parse.record(last.getStageMicros(Metrics.Stage.PARSE));
+        }
+    }
+
+    private static String summary(Result result) {
+        return String.format(Locale.ROOT, "%-16s ok %d/%d  first byte p50 %s ms  data p50 %s ms  p95 %s ms  "
+                        + "attempts %d  requests %d  read %d KiB",
+                result.scenario.name, result.succeeded, result.succeeded + result.failed,
+                millis(result.firstByte.percentile(0.5)), millis(result.timeToData.percentile(0.5)),
+                millis(result.timeToData.percentile(0.95)), result.attempts, result.requests,
+                result.bytesRead / 1024);
+    }
+
+    private static String toJson(Result result) {
+        Scenario scenario = result.scenario;
+        StringBuilder json = new StringBuilder("    {");
+        json.append("\"name\": \"").append(scenario.name).append('"')
+                .append(", \"headersDelayMs\": ").append(scenario.headersDelayMillis)
+                .append(", \"bytesPerSecond\": ").append(scenario.bytesPerSecond)
+                .append(", \"failure\": \"").append(scenario.failure).append('"')
+                .append(", \"failures\": ").append(scenario.failures)
+                .append(",\n      \"succeeded\": ").append(result.succeeded)
+                .append(", \"failed\": ").append(result.failed)
+                .append(", \"outcomes\": {");
+        boolean first = true;
+        for (Map.Entry<RunRecord.Outcome, Integer> entry : result.outcomes.entrySet()) {
+            json.append(first ? "" : ", ").append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+            first = false;
+        }
+        json.append("}")
+                .append(",\n      \"firstByteMs\": ").append(percentiles(result.firstByte))
+                .append(",\n      \"timeToDataMs\": ").append(percentiles(result.timeToData))
+                .append(",\n      \"fetchMs\": ").append(percentiles(result.fetch))
+                .append(",\n      \"parseMs\": ").append(percentiles(result.parse))
+                .append(",\n      \"bytesRead\": ").append(result.bytesRead)
+                .append(", \"attempts\": ").append(result.attempts)
+                .append(", \"maxAttempts\": ").append(result.maxAttempts)
+                .append(", \"requests\": ").append(result.requests)
+                .append(", \"workerBackoffMs\": ").append(result.backoffMillis)
+                .append('}');
+        return json.toString();
+    }
+
+    private static String percentiles(LatencyHistogram histogram) {
+        return "{\"count\": " + histogram.count()
+                + ", \"p50\": " + millis(histogram.percentile(0.5))
+                + ", \"p95\": " + millis(histogram.percentile(0.95))
+                + ", \"max\": " + millis(histogram.count() > 0 ? histogram.max() : -1) + "}";
+    }
+
+    private static String millis(long micros) {
+        return micros < 0 ? "null" : String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static void deleteContents(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Validators kept for the length of one attempt, so every attempt is a full fetch.
+     */
+    private static final class MemoryValidatorStore implements SchedulePipeline.ValidatorStore {
+        private String etag;
+        private String lastModified;
+        private String fingerprint;
+
+        @Override
+        public String getETag() {
+            return etag;
+        }
+
+        @Override
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public void save(String etag, String lastModified, String fingerprint) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when the next background schedule check should run.
+ * <p>
+ * The policy learns when the dispatcher usually publishes from the times of day at which changes were
+ * observed. It polls densely around that time, backs off exponentially while nothing changes, and never
+ * schedules a wakeup outside the daily update window. After a change it keeps polling at the backoff
+ * rate until the window closes, so same-day revisions are still picked up. Plain Java with an injectable
+ * clock, so it can be driven through simulated days.
+ */
+public class AdaptivePollingPolicy {
+
+    /**
+     * Source of the current time, in epoch millis.
+     */
+    public interface Clock {
+        long now();
+
+        Clock SYSTEM = System::currentTimeMillis;
+    }
+
+    static final int DEFAULT_WINDOW_START_MINUTE = 13 * 60;      // 1:00 PM
+    static final int DEFAULT_WINDOW_END_MINUTE = 23 * 60 + 59;   // 11:59 PM
+
+    private static final long MIN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long BASE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long MAX_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(120);
+    private static final int DENSE_BEFORE_MINUTES = 30;  // Start polling densely this long before the usual publish time
+    private static final int DENSE_AFTER_MINUTES = 60;   // ...and keep it up this long after
+    private static final int MAX_HISTORY = 14;           // About two weeks of publish times
+    private static final int MAX_BACKOFF_STEPS = 6;
+
+    private final Clock clock;
+    private final TimeZone timeZone;
+    private final int windowStartMinute;
+    private final int windowEndMinute;
+
+    private final List<Integer> changeMinutes = new ArrayList<>(); // Minute of day of each observed change, oldest first
+    private int missesSinceChange = 0;
+    private long lastChangeDay = -1; // Days since epoch (local) of the last observed change
+
+    public AdaptivePollingPolicy(Clock clock, TimeZone timeZone) {
+        this(clock, timeZone, DEFAULT_WINDOW_START_MINUTE, DEFAULT_WINDOW_END_MINUTE);
+    }
+
+    public AdaptivePollingPolicy(Clock clock, TimeZone timeZone, int windowStartMinute, int windowEndMinute) {
+        this.clock = clock;
+        this.timeZone = timeZone;
+        this.windowStartMinute = windowStartMinute;
+        this.windowEndMinute = windowEndMinute;
+    }
+
+    /**
+     * Records the outcome of a check that ran now.
+     *
+     * @param changed Whether the schedule had changed since the previous check.
+     */
+    public void recordCheck(boolean changed) {
+        long now = clock.now();
+        if (changed) {
+            if (lastChangeDay != day(now)) {
+                // Only the day's first change says when it was published; later ones are revisions
+                changeMinutes.add(minuteOfDay(now));
+                if (changeMinutes.size() > MAX_HISTORY) {
+                    changeMinutes.remove(0);
+                }
+            }
+            missesSinceChange = 0;
+            lastChangeDay = day(now);
+        } else {
+            missesSinceChange++;
+        }
+    }
+
+    /**
+     * @return Whether a check running now would fall inside the daily update window.
+     */
+    public boolean isInWindow() {
+        int minute = minuteOfDay(clock.now());
+        return minute >= windowStartMinute && minute <= windowEndMinute;
+    }
+
+    /**
+     * @return How long to wait before the next check. The check always lands inside the update window.
+     */
+    public long nextDelayMillis() {
+        long now = clock.now();
+        int minute = minuteOfDay(now);
+        long millisIntoMinute = millisOfDay(now) % TimeUnit.MINUTES.toMillis(1);
+
+        if (minute < windowStartMinute) {
+            return untilMinute(windowStartMinute, minute, millisIntoMinute);
+        }
+        if (minute > windowEndMinute) {
+            // Window closed: sleep until tomorrow's window
+            return untilMinute(windowStartMinute + TimeUnit.DAYS.toMinutes(1), minute, millisIntoMinute);
+        }
+
+        // Once today's schedule is out, dispatch can still revise it; keep checking at the backoff rate
+        int publishMinute = lastChangeDay == day(now) ? -1 : usualPublishMinute();
+        long delay;
+        if (publishMinute >= 0 && minute < publishMinute - DENSE_BEFORE_MINUTES) {
+            // Too early to expect anything: back off, but wake up in time for the dense zone
+            delay = Math.min(backoffInterval(), untilMinute(publishMinute - DENSE_BEFORE_MINUTES, minute, millisIntoMinute));
+        } else if (publishMinute >= 0 && minute <= publishMinute + DENSE_AFTER_MINUTES) {
+            delay = MIN_INTERVAL_MILLIS;
+        } else {
+            delay = backoffInterval();
+        }
+        delay = Math.max(delay, MIN_INTERVAL_MILLIS);
+
+        // Never let a wakeup spill past the end of the window
+        long untilWindowEnd = untilMinute(windowEndMinute, minute, millisIntoMinute);
+        if (delay > untilWindowEnd) {
+            delay = untilMinute(windowStartMinute + TimeUnit.DAYS.toMinutes(1), minute, millisIntoMinute);
+        }
+        return delay;
+    }
+
+    /**
+     * @return The median minute of day of recent changes, or -1 before any change has been seen.
+     */
+    public int usualPublishMinute() {
+        if (changeMinutes.isEmpty()) {
+            return -1;
+        }
+        List<Integer> sorted = new ArrayList<>(changeMinutes);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private long backoffInterval() {
+        int steps = Math.min(missesSinceChange, MAX_BACKOFF_STEPS);
+        return Math.min(BASE_INTERVAL_MILLIS << steps, MAX_INTERVAL_MILLIS);
+    }
+
+    private static long untilMinute(long targetMinute, int minute, long millisIntoMinute) {
+        return TimeUnit.MINUTES.toMillis(targetMinute - minute) - millisIntoMinute;
+    }
+
+    private long millisOfDay(long epochMillis) {
+        long local = epochMillis + timeZone.getOffset(epochMillis);
+        return Math.floorMod(local, TimeUnit.DAYS.toMillis(1));
+    }
+
+    private int minuteOfDay(long epochMillis) {
+        return (int) TimeUnit.MILLISECONDS.toMinutes(millisOfDay(epochMillis));
+    }
+
+    private long day(long epochMillis) {
+        long local = epochMillis + timeZone.getOffset(epochMillis);
+        return Math.floorDiv(local, TimeUnit.DAYS.toMillis(1));
+    }
+
+    /**
+     * Serializes the learned state, e.g. for SharedPreferences.
+     */
+    public String saveState() {
+        StringBuilder state = new StringBuilder();
+        state.append(missesSinceChange).append(';').append(lastChangeDay).append(';');
+        for (int i = 0; i < changeMinutes.size(); i++) {
+            if (i > 0) {
+                state.append(',');
+            }
+            state.append(changeMinutes.get(i));
+        }
+        return state.toString();
+    }
+
+    /**
+     * Restores state written by {@link #saveState()}. Unreadable state is ignored and learning starts over.
+     */
+    public void restoreState(String state) {
+        if (state == null || state.isEmpty()) {
+            return;
+        }
+        try {
+            String[] parts = state.split(";", -1);
+            int misses = Integer.parseInt(parts[0]);
+            long changeDay = Long.parseLong(parts[1]);
+            List<Integer> minutes = new ArrayList<>();
+            if (parts.length > 2 && !parts[2].isEmpty()) {
+                for (String minute : parts[2].split(",")) {
+                    minutes.add(Integer.parseInt(minute));
+                }
+            }
+            missesSinceChange = misses;
+            lastChangeDay = changeDay;
+            changeMinutes.clear();
+            changeMinutes.addAll(minutes);
+        } catch (RuntimeException e) {
+            // Keep the defaults
+        }
+    }
+
+}
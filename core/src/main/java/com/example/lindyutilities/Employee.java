@@ -0,0 +1,102 @@
+package com.example.lindyutilities;
+
+import java.util.Objects;
+
+/**
+ * One row of the schedule. Immutable, so rosters can be shared freely between the parser, the
+ * background pipeline and the UI.
+ */
+public final class Employee {
+
+    private final String name;
+    private final String shift;
+    private final String job;
+    private final String foreman;
+    private final String crew;
+    private final String jobAddress;
+    private final String employeePhone;
+    private final String foremanPhone;
+
+    public Employee(String name, String shift, String job, String foreman, String crew, String jobAddress, String employeePhone, String foremanPhone) {
+        this.name = name;
+        this.shift = shift;
+        this.job = job;
+        this.foreman = foreman;
+        this.crew = crew;
+        this.jobAddress = jobAddress;
+        this.employeePhone = employeePhone;
+        this.foremanPhone = foremanPhone;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getShift() {
+        return shift;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getForeman() {
+        return foreman;
+    }
+
+    public String getCrew() {
+        return crew;
+    }
+
+    public String getJobAddress() {
+        return jobAddress;
+    }
+
+    public String getEmployeePhone() {
+        return employeePhone;
+    }
+
+    public String getForemanPhone() {
+        return foremanPhone;
+    }
+
+    /**
+     * @return A copy of this row with a different job address.
+     */
+    public Employee withJobAddress(String jobAddress) {
+        return new Employee(name, shift, job, foreman, crew, jobAddress, employeePhone, foremanPhone);
+    }
+
+    @Override
+    public String toString() {
+        return "Employee: " + name + "\n" +
+                "Shift: " + shift + "\n" +
+                "Job: " + job + "\n" +
+                "Foreman: " + foreman + "\n" +
+                "Crew: " + crew + "\n" +
+                "Job Address: " + jobAddress + "\n" +
+                "Employee Phone: " + employeePhone + "\n" +
+                "Foreman Phone: " + foremanPhone + "\n";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Employee)) return false;
+        Employee other = (Employee) o;
+        return Objects.equals(name, other.name)
+                && Objects.equals(shift, other.shift)
+                && Objects.equals(job, other.job)
+                && Objects.equals(foreman, other.foreman)
+                && Objects.equals(crew, other.crew)
+                && Objects.equals(jobAddress, other.jobAddress)
+                && Objects.equals(employeePhone, other.employeePhone)
+                && Objects.equals(foremanPhone, other.foremanPhone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, shift, job, foreman, crew, jobAddress, employeePhone, foremanPhone);
+    }
+}
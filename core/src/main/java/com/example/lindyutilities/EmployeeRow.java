@@ -0,0 +1,96 @@
+package com.example.lindyutilities;
+
+/**
+ * What one roster row shows, formatted once per schedule load so binding the row is only field reads.
+ */
+public final class EmployeeRow {
+
+    private final Employee employee;
+    private final long id;
+    private final String nameLabel;
+    private final String phoneLabel;
+    private final String shiftLabel;
+    private final String jobLabel;
+    private final String foremanLabel;
+    private final String foremanPhoneLabel;
+    private final String crewLabel;
+    private final boolean hasPhone;
+    private final String dialUri;
+    private final String messageUri;
+
+    /**
+     * @param id Stable ID of the row across reloads.
+     */
+    public EmployeeRow(Employee employee, long id) {
+        this.employee = employee;
+        this.id = id;
+        this.nameLabel = "Name: " + employee.getName();
+        this.phoneLabel = "Phone: " + employee.getEmployeePhone();
+        this.shiftLabel = "Shift: " + employee.getShift();
+        this.jobLabel = "Job: " + employee.getJob();
+        this.foremanLabel = "Foreman: " + employee.getForeman();
+        this.foremanPhoneLabel = "Foreman Phone: " + employee.getForemanPhone();
+        this.crewLabel = "Crew: " + employee.getCrew();
+        this.hasPhone = !employee.getEmployeePhone().equals("N/A");
+        this.dialUri = hasPhone ? "tel:" + employee.getEmployeePhone() : null;
+        this.messageUri = hasPhone ? "smsto:" + employee.getEmployeePhone() : null;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNameLabel() {
+        return nameLabel;
+    }
+
+    public String getPhoneLabel() {
+        return phoneLabel;
+    }
+
+    public String getShiftLabel() {
+        return shiftLabel;
+    }
+
+    public String getJobLabel() {
+        return jobLabel;
+    }
+
+    public String getForemanLabel() {
+        return foremanLabel;
+    }
+
+    public String getForemanPhoneLabel() {
+        return foremanPhoneLabel;
+    }
+
+    public String getCrewLabel() {
+        return crewLabel;
+    }
+
+    public String getAddressLabel() {
+        return employee.getJobAddress();
+    }
+
+    public boolean hasPhone() {
+        return hasPhone;
+    }
+
+    /**
+     * @return The "tel:" URI for the employee's phone, or null without one.
+     */
+    public String getDialUri() {
+        return dialUri;
+    }
+
+    /**
+     * @return The "smsto:" URI for the employee's phone, or null without one.
+     */
+    public String getMessageUri() {
+        return messageUri;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The roster list's rows and how they are bound, without any Android types, so the whole bind path runs
+ * the same off-device as in the adapter.
+ * <p>
+ * Rows are built when a roster loads; a search result is mapped to its rows once, and binding a row is
+ * then only field reads and calls into its {@link RowView}. Not thread-safe; use it from the main thread.
+ */
+public final class EmployeeRowBinder {
+
+    public static final long NO_ID = -1;
+
+    /**
+     * The text fields of a row.
+     */
+    public enum Label {
+        NAME,
+        PHONE,
+        SHIFT,
+        JOB,
+        FOREMAN,
+        FOREMAN_PHONE,
+        CREW,
+        ADDRESS
+    }
+
+    /**
+     * One on-screen row, e.g. a view holder.
+     */
+    public interface RowView {
+        /**
+         * @param row The row now shown here, for click handling.
+         */
+        void setRow(EmployeeRow row);
+
+        void setLabel(Label label, CharSequence text);
+
+        void setExpanded(boolean expanded);
+    }
+
+    private Map<Employee, EmployeeRow> rows = new IdentityHashMap<>();
+    private long expandedId = NO_ID;
+
+    /**
+     * Builds the rows for a roster. IDs derive from {@link ScheduleDiff#keyOf} (name, numbered when names
+     * repeat), so the same person keeps the same ID across reloads, and unchanged employees keep their row.
+     */
+    public void setRoster(List<Employee> employees) {
+        Map<Employee, EmployeeRow> built = new IdentityHashMap<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (Employee employee : employees) {
+            long id = idOf(ScheduleDiff.keyOf(employee, seen));
+            EmployeeRow existing = rows.get(employee);
+            built.put(employee, existing != null && existing.getId() == id ? existing : new EmployeeRow(employee, id));
+        }
+        rows = built;
+    }
+
+    /**
+     * @param employees Employees of the current roster, e.g. a search result.
+     * @return Their rows, in the same order.
+     */
+    public List<EmployeeRow> rowsOf(List<Employee> employees) {
+        List<EmployeeRow> shown = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            EmployeeRow row = rows.get(employee);
+            if (row != null) {
+                shown.add(row);
+            }
+        }
+        return shown;
+    }
+
+    public void bind(RowView view, EmployeeRow row) {
+        view.setRow(row);
+        view.setLabel(Label.NAME, row.getNameLabel());
+        view.setLabel(Label.PHONE, row.getPhoneLabel());
+        view.setLabel(Label.SHIFT, row.getShiftLabel());
+        view.setLabel(Label.JOB, row.getJobLabel());
+        view.setLabel(Label.FOREMAN, row.getForemanLabel());
+        view.setLabel(Label.FOREMAN_PHONE, row.getForemanPhoneLabel());
+        view.setLabel(Label.CREW, row.getCrewLabel());
+        view.setLabel(Label.ADDRESS, row.getAddressLabel());
+        view.setExpanded(row.getId() == expandedId);
+    }
+
+    /**
+     * @return The ID of the row whose tray is open, or {@link #NO_ID}.
+     */
+    public long getExpandedId() {
+        return expandedId;
+    }
+
+    public void setExpandedId(long id) {
+        expandedId = id;
+    }
+
+    // 64-bit FNV-1a, plenty to keep a few thousand names apart
+    private static long idOf(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == NO_ID ? 0 : hash;
+    }
+}
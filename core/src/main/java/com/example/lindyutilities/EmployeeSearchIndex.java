@@ -0,0 +1,207 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory search index over a roster, built once per schedule load.
+ * <p>
+ * Every row is searchable by name, crew, job, foreman and both phone numbers (with or without
+ * punctuation). Fields are lowercased once at build time and a trigram posting list narrows
+ * candidates for longer queries. Typing more characters only re-checks the previous matches
+ * instead of rescanning the roster.
+ */
+public class EmployeeSearchIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000'; // Keeps matches from spanning two fields
+    private static final int[] NO_ROWS = new int[0];
+
+    private final List<Employee> employees;
+    private final String[] haystacks;
+    private final Map<Long, int[]> trigrams;
+
+    // Last answered query, reused when the next query extends it
+    private String lastQuery = null;
+    private int[] lastRows = null;
+
+    public EmployeeSearchIndex(List<Employee> employees) {
+        this.employees = employees;
+        this.haystacks = new String[employees.size()];
+
+        Map<Long, IntList> postings = new HashMap<>();
+        for (int row = 0; row < employees.size(); row++) {
+            String haystack = haystackOf(employees.get(row));
+            haystacks[row] = haystack;
+            for (int i = 0; i + 3 <= haystack.length(); i++) {
+                long trigram = trigramAt(haystack, i);
+                if (trigram < 0) {
+                    continue; // Spans a field boundary
+                }
+                IntList rows = postings.get(trigram);
+                if (rows == null) {
+                    rows = new IntList();
+                    postings.put(trigram, rows);
+                }
+                rows.addIfLast(row);
+            }
+        }
+
+        this.trigrams = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<Long, IntList> entry : postings.entrySet()) {
+            trigrams.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Finds every employee whose searchable fields contain the query, in roster order.
+     */
+    public List<Employee> search(String query) {
+        int[] rows = searchRows(query);
+        List<Employee> results = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            results.add(employees.get(row));
+        }
+        return results;
+    }
+
+    /**
+     * Same as {@link #search(String)} but returns the matching row indices.
+     */
+    public synchronized int[] searchRows(String query) {
+        String needle = normalize(query.trim());
+        int[] rows;
+        if (needle.isEmpty()) {
+            rows = allRows();
+        } else if (lastQuery != null && !lastQuery.isEmpty() && needle.startsWith(lastQuery)) {
+            rows = verify(lastRows, needle); // Narrow the previous result set
+        } else if (needle.length() >= 3) {
+            rows = verify(candidates(needle), needle);
+        } else {
+            rows = verify(allRows(), needle);
+        }
+        lastQuery = needle;
+        lastRows = rows;
+        return rows;
+    }
+
+    public int size() {
+        return employees.size();
+    }
+
+    /**
+     * Picks the shortest posting list among the query's trigrams; every match has to be in it.
+     */
+    private int[] candidates(String needle) {
+        int[] best = null;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            long trigram = trigramAt(needle, i);
+            int[] rows = trigram < 0 ? null : trigrams.get(trigram);
+            if (rows == null) {
+                return NO_ROWS; // No row contains this trigram
+            }
+            if (best == null || rows.length < best.length) {
+                best = rows;
+            }
+        }
+        return best;
+    }
+
+    private int[] verify(int[] candidates, String needle) {
+        IntList matches = new IntList();
+        for (int row : candidates) {
+            if (haystacks[row].contains(needle)) {
+                matches.add(row);
+            }
+        }
+        return matches.toArray();
+    }
+
+    private int[] allRows() {
+        int[] rows = new int[employees.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private static String haystackOf(Employee employee) {
+        StringBuilder haystack = new StringBuilder();
+        append(haystack, employee.getName());
+        append(haystack, employee.getCrew());
+        append(haystack, employee.getJob());
+        append(haystack, employee.getForeman());
+        append(haystack, employee.getEmployeePhone());
+        append(haystack, digitsOf(employee.getEmployeePhone()));
+        append(haystack, employee.getForemanPhone());
+        append(haystack, digitsOf(employee.getForemanPhone()));
+        return normalize(haystack.toString());
+    }
+
+    private static void append(StringBuilder haystack, String field) {
+        if (field != null && !field.isEmpty() && !field.equals("N/A")) {
+            haystack.append(field).append(FIELD_SEPARATOR);
+        }
+    }
+
+    private static String digitsOf(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs three chars into one key, or returns -1 if they cross a field separator.
+     */
+    private static long trigramAt(String text, int i) {
+        char a = text.charAt(i), b = text.charAt(i + 1), c = text.charAt(i + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Growable int array, so posting lists don't box every row index.
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        // Rows are indexed in order, so a repeated trigram in the same row is always the last entry
+        void addIfLast(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            int[] result = new int[size];
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Job and crew facets over a roster, computed once per schedule.
+ * <p>
+ * Each job and each crew owns a bitset of the rows that have it. Selecting several values ORs their
+ * bitsets within a facet and ANDs the two facets together, so any combination is a handful of word-wide
+ * bit operations instead of a scan with {@code List.contains}. Plain Java, no Android dependencies.
+ */
+public class FacetIndex {
+
+    private final List<Employee> employees;
+    private final Map<String, BitSet> jobs = new TreeMap<>();
+    private final Map<String, BitSet> crews = new TreeMap<>();
+
+    public FacetIndex(List<Employee> employees) {
+        this.employees = employees;
+        for (int row = 0; row < employees.size(); row++) {
+            Employee employee = employees.get(row);
+            bitsFor(jobs, employee.getJob()).set(row);
+            bitsFor(crews, employee.getCrew()).set(row);
+        }
+    }
+
+    private BitSet bitsFor(Map<String, BitSet> facet, String value) {
+        BitSet bits = facet.get(value);
+        if (bits == null) {
+            bits = new BitSet(employees.size());
+            facet.put(value, bits);
+        }
+        return bits;
+    }
+
+    /**
+     * @return Every job on the schedule with its head count, sorted by job name.
+     */
+    public Map<String, Integer> jobCounts() {
+        return counts(jobs, null);
+    }
+
+    /**
+     * @param selectedJobs Jobs to count within; empty means all jobs.
+     * @return Crews working the given jobs, with how many of those rows belong to each crew.
+     */
+    public Map<String, Integer> crewCounts(Collection<String> selectedJobs) {
+        return counts(crews, union(jobs, selectedJobs));
+    }
+
+    /**
+     * Rows matching any of the selected jobs and any of the selected crews.
+     * An empty selection leaves that facet unfiltered.
+     */
+    public BitSet matching(Collection<String> selectedJobs, Collection<String> selectedCrews) {
+        BitSet result = union(jobs, selectedJobs);
+        BitSet crewRows = union(crews, selectedCrews);
+        if (result == null) {
+            return crewRows != null ? crewRows : allRows();
+        }
+        if (crewRows != null) {
+            result.and(crewRows);
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #matching} but returns the employees, in roster order.
+     */
+    public List<Employee> select(Collection<String> selectedJobs, Collection<String> selectedCrews) {
+        BitSet rows = matching(selectedJobs, selectedCrews);
+        List<Employee> selected = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            selected.add(employees.get(row));
+        }
+        return selected;
+    }
+
+    /**
+     * ORs the bitsets of the selected values, or returns null when nothing is selected.
+     */
+    private BitSet union(Map<String, BitSet> facet, Collection<String> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet(employees.size());
+        for (String value : selected) {
+            BitSet bits = facet.get(value);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> counts(Map<String, BitSet> facet, BitSet within) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, BitSet> entry : facet.entrySet()) {
+            int count;
+            if (within == null) {
+                count = entry.getValue().cardinality();
+            } else {
+                BitSet bits = (BitSet) entry.getValue().clone();
+                bits.and(within);
+                count = bits.cardinality();
+            }
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private BitSet allRows() {
+        BitSet rows = new BitSet(employees.size());
+        rows.set(0, employees.size());
+        return rows;
+    }
+}
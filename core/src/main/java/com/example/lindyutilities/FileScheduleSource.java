@@ -0,0 +1,58 @@
+package com.example.lindyutilities;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves a saved schedule page from a file as if the site had returned it. Conditional requests get a 304
+ * while the file is unchanged, so the whole pipeline, 304 path included, runs without a network.
+ */
+public class FileScheduleSource implements ScheduleSource {
+
+    private final File file;
+    private final Charset charset;
+
+    public FileScheduleSource(File file) {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    public FileScheduleSource(File file, Charset charset) {
+        this.file = file;
+        this.charset = charset;
+    }
+
+    @Override
+    public void fetch(Request request, Callback callback) {
+        // Answer on another thread, the way a network call would
+        new Thread(() -> {
+            Response response;
+            try {
+                response = read(request);
+            } catch (IOException e) {
+                callback.onFailure(e);
+                return;
+            }
+            callback.onResponse(response);
+        }, "schedule-file-source").start();
+    }
+
+    private Response read(Request request) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        String etag = "\"" + Long.toHexString(file.length()) + "-" + Long.toHexString(file.lastModified()) + "\"";
+        if (etag.equals(request.getETag())) {
+            return new Response(304, null, charset, etag, null);
+        }
+        byte[] body = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(body);
+        }
+        return new Response(200, body, charset, etag, null);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.lindyutilities;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * The live schedule page over HTTP. The employee is picked by cookie, and stored validators go out as
+ * If-None-Match / If-Modified-Since. OkHttp's threads only read the body.
+ */
+public class HttpScheduleSource implements ScheduleSource {
+
+    private final OkHttpClient client;
+    private final String url;
+
+    public HttpScheduleSource(OkHttpClient client, String url) {
+        this.client = client;
+        this.url = url;
+    }
+
+    /**
+     * Starts a request for the schedule page as seen by the given employee.
+     */
+    public static okhttp3.Request.Builder newRequest(String url, String employeeId) {
+        return new okhttp3.Request.Builder()
+                .url(url)
+                .addHeader("Cookie", "schedulingEmpID=" + employeeId);
+    }
+
+    public static Charset charsetOf(ResponseBody body) {
+        MediaType contentType = body.contentType();
+        return contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Reads a body into one array. With a known length this reads straight into it a segment at a time;
+     * {@link ResponseBody#bytes()} would buffer the whole body first and then copy it, twice the page at
+     * peak. A chunked or transparently gzipped body has no length up front and still goes through bytes().
+     */
+    public static byte[] readBody(ResponseBody body) throws IOException {
+        long length = body.contentLength();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            return body.bytes();
+        }
+        byte[] bytes = new byte[(int) length];
+        BufferedSource source = body.source();
+        for (int offset = 0; offset < bytes.length; ) {
+            int read = source.read(bytes, offset, bytes.length - offset);
+            if (read < 0) {
+                throw new EOFException("Body ended after " + offset + " of " + length + " bytes");
+            }
+            offset += read;
+        }
+        return bytes;
+    }
+
+    @Override
+    public void fetch(Request request, Callback callback) {
+        okhttp3.Request.Builder builder = newRequest(url, request.getEmployeeId());
+        if (request.getETag() != null) {
+            builder.addHeader("If-None-Match", request.getETag());
+        }
+        if (request.getLastModified() != null) {
+            builder.addHeader("If-Modified-Since", request.getLastModified());
+        }
+
+        client.newCall(builder.build()).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callback.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                Response result;
+                try (ResponseBody body = response.body()) {
+                    boolean hasBody = body != null && response.code() != 304;
+                    result = new Response(response.code(), hasBody ? readBody(body) : null,
+                            hasBody ? charsetOf(body) : StandardCharsets.UTF_8,
+                            response.header("ETag"), response.header("Last-Modified"));
+                } catch (IOException | RuntimeException e) {
+                    // A body cut off mid-read is a failed fetch too
+                    callback.onFailure(e instanceof IOException ? (IOException) e : new IOException(e));
+                    return;
+                }
+                callback.onResponse(result);
+            }
+        });
+    }
+}
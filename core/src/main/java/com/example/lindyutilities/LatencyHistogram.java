@@ -0,0 +1,82 @@
+package com.example.lindyutilities;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size latency histogram in microseconds.
+ * <p>
+ * Buckets are log-linear: exact below 8 us, then eight buckets per power of two, so any percentile is
+ * within about 6% of the true value. Recording never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAX_EXPONENT = 40; // About 12 days in microseconds; anything longer is clamped
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private long max = 0;
+
+    public synchronized void record(long micros) {
+        long value = Math.max(0, micros);
+        counts[indexOf(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public synchronized long count() {
+        return total;
+    }
+
+    public synchronized long max() {
+        return max;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.95 for p95.
+     * @return The estimated latency at that quantile in microseconds, or -1 when nothing was recorded.
+     */
+    public synchronized long percentile(double quantile) {
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(midpointOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= 3
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - 3)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - 3) * SUB_BUCKETS + sub;
+    }
+
+    private static long midpointOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + 3;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - 3);
+        return (SUB_BUCKETS + sub) * width + width / 2;
+    }
+}
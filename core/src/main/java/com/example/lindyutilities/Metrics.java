@@ -0,0 +1,155 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters and stage latency histograms for the schedule update pipeline, plus an optional
+ * on-disk {@link RunLog} of recent runs.
+ * <p>
+ * Off until {@link #setEnabled} turns it on; the app does so in debug builds only. Recording a stage is a
+ * clock read and a histogram increment. When disabled, {@link #startRun} returns null, {@link #now()}
+ * returns 0 and every recording call returns straight away without allocating.
+ */
+public final class Metrics {
+
+    /**
+     * Timed pipeline stages.
+     */
+    public enum Stage {
+        FETCH,
+        PARSE,
+        DIFF,
+        PERSIST,
+        NOTIFY
+    }
+
+    /**
+     * Things worth counting that aren't timed.
+     */
+    public enum Counter {
+        FETCH_STARTED,
+        FETCH_ERROR,
+        MEMO_HIT,
+        COALESCED,
+        WORKER_RUN,
+        WORKER_OUTSIDE_WINDOW,
+        WORKER_RETRY,
+        PAGE_AUTH_EXPIRED,
+        PAGE_LAYOUT_CHANGED,
+        PAGE_TRUNCATED,
+        PARSE_JOB_FAILED
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[STAGES.length];
+    private static final AtomicLongArray COUNTERS = new AtomicLongArray(Counter.values().length);
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    private static volatile boolean enabled = false;
+    private static volatile RunLog runLog = null;
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Sets where finished runs are written; null keeps them in memory only (histograms and counters).
+     */
+    public static void setRunLog(RunLog log) {
+        runLog = log;
+    }
+
+    public static RunLog getRunLog() {
+        return runLog;
+    }
+
+    /**
+     * @return A start timestamp for {@link #record}, or 0 when disabled.
+     */
+    public static long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Starts a run record, or returns null when disabled. Every other call accepts the null.
+     *
+     * @param background Whether this is a background check.
+     */
+    public static RunRecord startRun(boolean background) {
+        return enabled ? new RunRecord(System.currentTimeMillis(), background) : null;
+    }
+
+    /**
+     * Records that a stage which started at {@code startNanos} (from {@link #now()}) just finished.
+     */
+    public static void record(RunRecord run, Stage stage, long startNanos) {
+        if (startNanos == 0 || !enabled) {
+            return;
+        }
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        HISTOGRAMS[stage.ordinal()].record(micros);
+        if (run != null) {
+            run.setStageMicros(stage, micros);
+        }
+    }
+
+    /**
+     * Finishes a run and appends it to the run log, if one is set. Does I/O; call it off the main thread.
+     */
+    public static void finishRun(RunRecord run, RunRecord.Outcome outcome) {
+        if (run == null) {
+            return;
+        }
+        run.setOutcome(outcome);
+        RunLog log = runLog;
+        if (log != null) {
+            try {
+                log.append(run);
+            } catch (IOException e) {
+                // Metrics are best effort
+            }
+        }
+    }
+
+    public static void increment(Counter counter) {
+        if (enabled) {
+            COUNTERS.incrementAndGet(counter.ordinal());
+        }
+    }
+
+    public static long count(Counter counter) {
+        return COUNTERS.get(counter.ordinal());
+    }
+
+    /**
+     * @return The live histogram for a stage in this process.
+     */
+    public static LatencyHistogram histogram(Stage stage) {
+        return HISTOGRAMS[stage.ordinal()];
+    }
+
+    /**
+     * Clears counters and histograms (not the run log).
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        for (int i = 0; i < COUNTERS.length(); i++) {
+            COUNTERS.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small bounded executor for CPU-bound schedule work (parse, diff, persist), with two priority lanes.
+ * <p>
+ * Foreground jobs always start before queued background jobs, and background jobs may only occupy all
+ * but one of the threads, so an interactive request never waits behind a background poll that is already
+ * parsing. Queued jobs can be cancelled, and a job submitted under a key supersedes (cancels) a job with
+ * the same key that hasn't started yet. Running jobs are never interrupted.
+ * <p>
+ * A job that throws is counted as {@link Metrics.Counter#PARSE_JOB_FAILED} and dropped; jobs are expected
+ * to report their own failures.
+ */
+public class ParseExecutor {
+
+    /**
+     * Which queue a job goes in.
+     */
+    public enum Lane {
+        FOREGROUND,
+        BACKGROUND
+    }
+
+    /**
+     * Handle to a submitted job.
+     */
+    public final class Task {
+        private final String key;
+        private final Runnable job;
+        private final Runnable onCancelled;
+        private Lane lane;
+        private boolean started = false;
+        private boolean cancelled = false;
+
+        Task(Lane lane, String key, Runnable job, Runnable onCancelled) {
+            this.lane = lane;
+            this.key = key;
+            this.job = job;
+            this.onCancelled = onCancelled;
+        }
+
+        /**
+         * Cancels the job if it hasn't started. Its cancellation callback runs on the calling thread.
+         *
+         * @return Whether the job was cancelled.
+         */
+        public boolean cancel() {
+            synchronized (lock) {
+                if (started || cancelled) {
+                    return false;
+                }
+                dequeue(this);
+                cancelled = true;
+            }
+            if (onCancelled != null) {
+                onCancelled.run();
+            }
+            return true;
+        }
+
+        /**
+         * Moves a queued background job to the foreground lane, e.g. once the user starts waiting on it.
+         */
+        public void promote() {
+            synchronized (lock) {
+                if (started || cancelled || lane == Lane.FOREGROUND) {
+                    return;
+                }
+                background.remove(this);
+                lane = Lane.FOREGROUND;
+                foreground.add(this);
+                lock.notifyAll();
+            }
+        }
+
+        public boolean isCancelled() {
+            synchronized (lock) {
+                return cancelled;
+            }
+        }
+    }
+
+    private static final int DEFAULT_THREADS = 2;
+    private static ParseExecutor shared;
+
+    private final Object lock = new Object();
+    // All guarded by lock
+    private final ArrayDeque<Task> foreground = new ArrayDeque<>();
+    private final ArrayDeque<Task> background = new ArrayDeque<>();
+    private final Map<String, Task> queuedByKey = new HashMap<>();
+    private final int maxBackground;
+    private int runningBackground = 0;
+
+    /**
+     * @param threads At least 2: one of them is always kept free of background jobs.
+     */
+    public ParseExecutor(int threads, String name) {
+        if (threads < 2) {
+            throw new IllegalArgumentException("Need at least 2 threads, got " + threads);
+        }
+        this.maxBackground = threads - 1;
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::runJobs, name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * @return The process-wide executor for schedule processing.
+     */
+    public static synchronized ParseExecutor shared() {
+        if (shared == null) {
+            shared = new ParseExecutor(DEFAULT_THREADS, "schedule-parse");
+        }
+        return shared;
+    }
+
+    /**
+     * @param key         Jobs with the same non-null key supersede each other while queued.
+     * @param onCancelled Runs if the job is cancelled or superseded before it starts; may be null.
+     */
+    public Task submit(Lane lane, String key, Runnable job, Runnable onCancelled) {
+        Task task = new Task(lane, key, job, onCancelled);
+        Task superseded;
+        synchronized (lock) {
+            superseded = key != null ? queuedByKey.get(key) : null;
+            if (key != null) {
+                queuedByKey.put(key, task);
+            }
+            (lane == Lane.FOREGROUND ? foreground : background).add(task);
+            lock.notifyAll();
+        }
+        if (superseded != null) {
+            superseded.cancel();
+        }
+        return task;
+    }
+
+    /**
+     * @return How many jobs are waiting to start.
+     */
+    public int queued() {
+        synchronized (lock) {
+            return foreground.size() + background.size();
+        }
+    }
+
+    private void dequeue(Task task) {
+        (task.lane == Lane.FOREGROUND ? foreground : background).remove(task);
+        if (task.key != null && queuedByKey.get(task.key) == task) {
+            queuedByKey.remove(task.key);
+        }
+    }
+
+    private void runJobs() {
+        while (true) {
+            Task task;
+            try {
+                task = next();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                task.job.run();
+            } catch (RuntimeException e) {
+                // Handing this to the uncaught handler would kill the app; count it and keep the thread
+                Metrics.increment(Metrics.Counter.PARSE_JOB_FAILED);
+            } finally {
+                if (task.lane == Lane.BACKGROUND) {
+                    synchronized (lock) {
+                        runningBackground--;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private Task next() throws InterruptedException {
+        synchronized (lock) {
+            while (true) {
+                Task task = foreground.peek();
+                if (task == null && runningBackground < maxBackground) {
+                    task = background.peek();
+                }
+                if (task != null) {
+                    dequeue(task);
+                    task.started = true;
+                    if (task.lane == Lane.BACKGROUND) {
+                        runningBackground++;
+                    }
+                    return task;
+                }
+                lock.wait();
+            }
+        }
+    }
+}
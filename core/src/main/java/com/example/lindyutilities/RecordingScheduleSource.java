@@ -0,0 +1,48 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+
+/**
+ * Passes fetches through to another source and captures every response or failure, with its latency,
+ * to a {@link ScheduleRecording}. Recording is best effort; a failed write never fails the fetch.
+ */
+public class RecordingScheduleSource implements ScheduleSource {
+
+    private final ScheduleSource delegate;
+    private final ScheduleRecording recording;
+
+    public RecordingScheduleSource(ScheduleSource delegate, ScheduleRecording recording) {
+        this.delegate = delegate;
+        this.recording = recording;
+    }
+
+    @Override
+    public void fetch(Request request, Callback callback) {
+        long start = System.nanoTime();
+        delegate.fetch(request, new Callback() {
+            @Override
+            public void onResponse(Response response) {
+                record(new ScheduleRecording.Entry(elapsedMillis(start), response, null));
+                callback.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                record(new ScheduleRecording.Entry(elapsedMillis(start), null, e.getMessage()));
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    private void record(ScheduleRecording.Entry entry) {
+        try {
+            recording.append(entry);
+        } catch (IOException e) {
+            // Keep serving; a recording is only a convenience
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays recorded responses back in order, one per fetch, repeating the last one once the recording runs
+ * out. With {@code realTiming} each answer waits out the recorded latency, so timing-sensitive behaviour
+ * (coalescing, lanes, time-to-data) can be reproduced too. Requests are not inspected, so a replay is
+ * deterministic regardless of which validators the pipeline sends.
+ */
+public class ReplayScheduleSource implements ScheduleSource {
+
+    private final List<ScheduleRecording.Entry> entries;
+    private final boolean realTiming;
+    private int next = 0; // Guarded by this
+
+    public ReplayScheduleSource(List<ScheduleRecording.Entry> entries, boolean realTiming) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to replay");
+        }
+        this.entries = new ArrayList<>(entries);
+        this.realTiming = realTiming;
+    }
+
+    public ReplayScheduleSource(ScheduleRecording recording, boolean realTiming) throws IOException {
+        this(recording.readAll(), realTiming);
+    }
+
+    @Override
+    public void fetch(Request request, Callback callback) {
+        ScheduleRecording.Entry entry;
+        synchronized (this) {
+            entry = entries.get(Math.min(next, entries.size() - 1));
+            next++;
+        }
+        new Thread(() -> {
+            if (realTiming && entry.getLatencyMillis() > 0) {
+                try {
+                    Thread.sleep(entry.getLatencyMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (entry.getResponse() != null) {
+                callback.onResponse(entry.getResponse());
+            } else {
+                callback.onFailure(new IOException(entry.getFailure()));
+            }
+        }, "schedule-replay-source").start();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.lindyutilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of {@link RunRecord}s on disk, so run history survives process restarts
+ * (background checks usually run in a fresh process) without ever growing past a few kilobytes.
+ * <p>
+ * Layout: a header (magic, version, stage count, next slot, record count) followed by
+ * {@link #CAPACITY} fixed-size slots; the oldest record is overwritten once the buffer is full.
+ */
+public class RunLog {
+
+    public static final int CAPACITY = 256;
+
+    private static final int MAGIC = 0x4C524C47; // "LRLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int STAGES = Metrics.Stage.values().length;
+    private static final int RECORD_SIZE = 8 + 1 + 1 + 4 * STAGES;
+
+    private final File file;
+
+    public RunLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends a record, overwriting the oldest one once the buffer is full.
+     */
+    public synchronized void append(RunRecord record) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            int next = 0;
+            int count = 0;
+            if (hasValidHeader(raf)) {
+                raf.seek(12);
+                next = raf.readInt();
+                count = raf.readInt();
+            }
+
+            raf.seek(HEADER_SIZE + (long) next * RECORD_SIZE);
+            raf.writeLong(record.getStartedAt());
+            raf.writeByte(record.isBackground() ? 1 : 0);
+            raf.writeByte(record.getOutcome().ordinal());
+            for (long micros : record.stageMicros()) {
+                raf.writeInt((int) Math.min(micros, Integer.MAX_VALUE));
+            }
+
+            raf.seek(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION);
+            raf.writeInt(STAGES);
+            raf.writeInt((next + 1) % CAPACITY);
+            raf.writeInt(Math.min(count + 1, CAPACITY));
+        }
+    }
+
+    /**
+     * @return Every stored record, oldest first. An unreadable file reads as empty.
+     */
+    public synchronized List<RunRecord> readAll() {
+        List<RunRecord> records = new ArrayList<>();
+        if (!file.exists()) {
+            return records;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (!hasValidHeader(raf)) {
+                return records;
+            }
+            raf.seek(12);
+            int next = raf.readInt();
+            int count = raf.readInt();
+            RunRecord.Outcome[] outcomes = RunRecord.Outcome.values();
+            for (int i = 0; i < count; i++) {
+                int slot = (next - count + i + CAPACITY) % CAPACITY;
+                raf.seek(HEADER_SIZE + (long) slot * RECORD_SIZE);
+                long startedAt = raf.readLong();
+                boolean background = raf.readByte() != 0;
+                int outcome = raf.readByte();
+                long[] stageMicros = new long[STAGES];
+                for (int stage = 0; stage < STAGES; stage++) {
+                    stageMicros[stage] = raf.readInt();
+                }
+                if (outcome >= 0 && outcome < outcomes.length) {
+                    records.add(new RunRecord(startedAt, background, outcomes[outcome], stageMicros));
+                }
+            }
+        } catch (IOException e) {
+            // Treat a damaged log as empty; the next append starts it over
+        }
+        return records;
+    }
+
+    private static boolean hasValidHeader(RandomAccessFile raf) throws IOException {
+        if (raf.length() < HEADER_SIZE) {
+            return false;
+        }
+        raf.seek(0);
+        return raf.readInt() == MAGIC && raf.readInt() == VERSION && raf.readInt() == STAGES;
+    }
+}
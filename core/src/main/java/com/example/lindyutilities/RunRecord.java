@@ -0,0 +1,81 @@
+package com.example.lindyutilities;
+
+import java.util.Arrays;
+
+/**
+ * Timings and outcome of one run of the schedule update pipeline.
+ */
+public final class RunRecord {
+
+    /**
+     * How a run ended.
+     */
+    public enum Outcome {
+        CHANGED,
+        UNCHANGED,
+        NOT_MODIFIED,
+        ERROR,
+        INVALID_PAGE
+    }
+
+    static final long NOT_RUN = -1;
+
+    private final long startedAt;
+    private final boolean background;
+    private final long[] stageMicros;
+    private Outcome outcome;
+
+    RunRecord(long startedAt, boolean background, Outcome outcome, long[] stageMicros) {
+        this.startedAt = startedAt;
+        this.background = background;
+        this.outcome = outcome;
+        this.stageMicros = stageMicros;
+    }
+
+    RunRecord(long startedAt, boolean background) {
+        this(startedAt, background, Outcome.ERROR, newStages());
+    }
+
+    private static long[] newStages() {
+        long[] stages = new long[Metrics.Stage.values().length];
+        Arrays.fill(stages, NOT_RUN);
+        return stages;
+    }
+
+    /**
+     * @return Wall clock time the run started, in epoch millis.
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return Whether the run was a background check rather than the app loading the schedule.
+     */
+    public boolean isBackground() {
+        return background;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return How long the stage took in microseconds, or -1 if the run never got to it.
+     */
+    public long getStageMicros(Metrics.Stage stage) {
+        return stageMicros[stage.ordinal()];
+    }
+
+    void setStageMicros(Metrics.Stage stage, long micros) {
+        stageMicros[stage.ordinal()] = micros;
+    }
+
+    void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    long[] stageMicros() {
+        return stageMicros;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parsed daily schedule: the header date, your own row and the rest of the crew. The crew list is a
+ * read-only copy, so a schedule can be shared between threads and screens without copying again.
+ */
+public class Schedule {
+
+    private final String scheduleDate;
+    private final Employee mySchedule;
+    private final List<Employee> employees;
+
+    public Schedule(String scheduleDate, Employee mySchedule, List<Employee> employees) {
+        this.scheduleDate = scheduleDate;
+        this.mySchedule = mySchedule;
+        this.employees = Collections.unmodifiableList(new ArrayList<>(employees));
+    }
+
+    public String getScheduleDate() {
+        return scheduleDate;
+    }
+
+    public Employee getMySchedule() {
+        return mySchedule;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+}
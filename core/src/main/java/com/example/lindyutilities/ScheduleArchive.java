@@ -0,0 +1,315 @@
+package com.example.lindyutilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Append-only history of past schedules on disk, indexed by the day each one is for.
+ * <p>
+ * Layout: a header (magic, version) followed by records of [epoch day, payload length, payload], where the
+ * payload is a schedule in {@link ScheduleSnapshotStore}'s format. A revised schedule for a day is appended
+ * rather than rewritten, and the index points at the newest record. The index is kept in memory and
+ * rebuilt from the record headers whenever the file was changed by another instance; a record torn by a
+ * crash ends the scan and is cut off by the next append.
+ * <p>
+ * Once the file outgrows its size budget it is compacted: superseded revisions are dropped, and then the
+ * oldest days, until it is back under three quarters of the budget.
+ */
+public class ScheduleArchive {
+
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    private static final int MAGIC = 0x4C534841; // "LSHA"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    // Text months and weekdays parse in full or abbreviated, e.g. "Tue, Mar 4, 2025"
+    private static final String[] DATE_PATTERNS = {
+            "EEE, MMM d, yyyy", "EEE MMM d, yyyy", "EEE, MMM d yyyy", "EEE, d MMM yyyy", "MMM d, yyyy",
+            "MMM d yyyy", "d MMM yyyy", "EEE, M/d/yyyy", "M/d/yyyy", "yyyy-MM-dd"
+    };
+    private static final Object LOCK = new Object(); // Activity and worker each open their own archive
+
+    private final File file;
+    private final File tempFile;
+    private final long maxBytes;
+
+    // Epoch day -> offset of its newest record; all guarded by LOCK
+    private final TreeMap<Long, Long> index = new TreeMap<>();
+    private long indexedLength = -1;
+    private long indexedModified = -1;
+    private long validLength = 0; // End of the last intact record, 0 when the file needs a fresh header
+
+    public ScheduleArchive(File file, long maxBytes) {
+        this.file = file;
+        this.tempFile = new File(file.getPath() + ".tmp");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param scheduleDate A date as the schedule page shows it, e.g. "Tuesday, March 4, 2025".
+     * @return Days since 1970-01-01, or -1 if the date can't be read.
+     */
+    public static long epochDayOf(String scheduleDate) {
+        if (scheduleDate == null) {
+            return -1;
+        }
+        String normalized = scheduleDate.replace('\u00A0', ' ').replaceAll("\\s+", " ").trim();
+        for (String pattern : DATE_PATTERNS) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setLenient(false);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            try {
+                return format.parse(normalized).getTime() / MILLIS_PER_DAY;
+            } catch (ParseException e) {
+                // Try the next pattern
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param month 1 for January.
+     * @return Days since 1970-01-01.
+     */
+    public static long epochDay(int year, int month, int dayOfMonth) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"), Locale.US);
+        calendar.clear();
+        calendar.set(year, month - 1, dayOfMonth);
+        return calendar.getTimeInMillis() / MILLIS_PER_DAY;
+    }
+
+    /**
+     * Archives a schedule under its date, unless the newest record for that day already holds the same one.
+     *
+     * @return Whether anything was written.
+     * @throws IOException Also when the schedule's date can't be read, so it isn't dropped unnoticed.
+     */
+    public boolean append(Schedule schedule) throws IOException {
+        long day = epochDayOf(schedule.getScheduleDate());
+        if (day < 0) {
+            throw new IOException("Can't archive a schedule with unreadable date \""
+                    + schedule.getScheduleDate() + "\"");
+        }
+        byte[] record = toRecord(day, schedule);
+
+        synchronized (LOCK) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                refreshIndex(raf);
+                Long newest = index.get(day);
+                if (newest != null && Arrays.equals(record, readRecord(raf, newest))) {
+                    return false;
+                }
+
+                if (validLength == 0) {
+                    raf.setLength(0);
+                    raf.write(header());
+                    validLength = HEADER_SIZE;
+                }
+                raf.setLength(validLength); // Cut off a torn record, if any
+                raf.seek(validLength);
+                raf.write(record);
+                index.put(day, validLength);
+                validLength += record.length;
+                indexedLength = validLength;
+            }
+            indexedModified = file.lastModified();
+
+            if (validLength > maxBytes) {
+                compact();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The newest schedule archived for the day, or null if there is none.
+     */
+    public Schedule get(long epochDay) throws IOException {
+        synchronized (LOCK) {
+            if (!file.exists()) {
+                return null;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                refreshIndex(raf);
+                Long offset = index.get(epochDay);
+                return offset != null ? fromRecord(readRecord(raf, offset)) : null;
+            }
+        }
+    }
+
+    /**
+     * @return The newest schedule of every archived day from {@code fromDay} to {@code toDay} inclusive,
+     * oldest first.
+     */
+    public List<Schedule> range(long fromDay, long toDay) throws IOException {
+        List<Schedule> schedules = new ArrayList<>();
+        synchronized (LOCK) {
+            if (!file.exists()) {
+                return schedules;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                refreshIndex(raf);
+                for (long offset : index.subMap(fromDay, true, toDay, true).values()) {
+                    schedules.add(fromRecord(readRecord(raf, offset)));
+                }
+            }
+        }
+        return schedules;
+    }
+
+    /**
+     * @return Every archived day, oldest first.
+     */
+    public List<Long> days() throws IOException {
+        synchronized (LOCK) {
+            if (!file.exists()) {
+                return new ArrayList<>();
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                refreshIndex(raf);
+                return new ArrayList<>(index.keySet());
+            }
+        }
+    }
+
+    /**
+     * @return The size of the archive file in bytes.
+     */
+    public long sizeBytes() {
+        return file.length();
+    }
+
+    /**
+     * Rebuilds the index from the record headers if the file changed since it was last read.
+     */
+    private void refreshIndex(RandomAccessFile raf) throws IOException {
+        long length = raf.length();
+        long modified = file.lastModified();
+        if (length == indexedLength && modified == indexedModified) {
+            return;
+        }
+        index.clear();
+        indexedLength = length;
+        indexedModified = modified;
+        validLength = 0;
+        if (length < HEADER_SIZE) {
+            return;
+        }
+        raf.seek(0);
+        if (raf.readInt() != MAGIC || raf.readInt() != VERSION) {
+            return; // Unknown format; the next append starts it over
+        }
+
+        long offset = HEADER_SIZE;
+        byte[] recordHeader = new byte[RECORD_HEADER_SIZE];
+        while (offset + RECORD_HEADER_SIZE <= length) {
+            raf.seek(offset);
+            raf.readFully(recordHeader);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(recordHeader));
+            long day = in.readLong();
+            int size = in.readInt();
+            long end = offset + RECORD_HEADER_SIZE + size;
+            if (size < 0 || end > length) {
+                break; // Torn by a crash mid-append
+            }
+            index.put(day, offset);
+            offset = end;
+        }
+        validLength = offset;
+    }
+
+    /**
+     * Rewrites the archive with only the newest record of each day, dropping the oldest days until it fits.
+     */
+    private void compact() throws IOException {
+        long target = maxBytes * 3 / 4;
+        List<byte[]> kept = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long total = HEADER_SIZE;
+            for (Map.Entry<Long, Long> entry : index.descendingMap().entrySet()) {
+                byte[] record = readRecord(raf, entry.getValue());
+                if (total + record.length > target && !kept.isEmpty()) {
+                    break;
+                }
+                kept.add(record);
+                total += record.length;
+            }
+        }
+        Collections.reverse(kept); // Back to oldest first
+
+        FileOutputStream out = new FileOutputStream(tempFile);
+        try {
+            out.write(header());
+            for (byte[] record : kept) {
+                out.write(record);
+            }
+            out.flush();
+            out.getFD().sync(); // Make sure the bytes are on disk before the rename
+        } finally {
+            out.close();
+        }
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException("Unable to compact schedule archive " + file);
+        }
+        indexedLength = -1; // Re-read on next use
+    }
+
+    private static byte[] readRecord(RandomAccessFile raf, long offset) throws IOException {
+        raf.seek(offset + 8);
+        int size = raf.readInt();
+        byte[] record = new byte[RECORD_HEADER_SIZE + size];
+        raf.seek(offset);
+        raf.readFully(record);
+        return record;
+    }
+
+    private static byte[] toRecord(long day, Schedule schedule) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(day);
+        out.writeInt(0); // Payload length, filled in below
+        ScheduleSnapshotStore.writeSchedule(out, schedule);
+        out.flush();
+
+        byte[] record = bytes.toByteArray();
+        int size = record.length - RECORD_HEADER_SIZE;
+        record[8] = (byte) (size >>> 24);
+        record[9] = (byte) (size >>> 16);
+        record[10] = (byte) (size >>> 8);
+        record[11] = (byte) size;
+        return record;
+    }
+
+    private static Schedule fromRecord(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE));
+        return ScheduleSnapshotStore.readSchedule(in);
+    }
+
+    private static byte[] header() {
+        return new byte[]{
+                (byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC,
+                0, 0, 0, VERSION
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field-level differences between two parsed schedules.
+ * <p>
+ * Rows are matched by employee name through a hash map, so a diff costs O(n) in the roster size.
+ * Cosmetic page changes (ads, timestamps, markup) never show up here because only parsed fields are compared.
+ */
+public class ScheduleDiff {
+
+    /**
+     * The per-employee fields the diff looks at.
+     */
+    public enum Field {
+        SHIFT("Shift"),
+        JOB("Job"),
+        FOREMAN("Foreman"),
+        CREW("Crew"),
+        ADDRESS("Job Address"),
+        PHONE("Phone"),
+        FOREMAN_PHONE("Foreman Phone");
+
+        private final String label;
+
+        Field(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * One employee whose row differs between the two schedules.
+     */
+    public static class Change {
+        private final Employee before;
+        private final Employee after;
+        private final EnumSet<Field> fields;
+
+        Change(Employee before, Employee after, EnumSet<Field> fields) {
+            this.before = before;
+            this.after = after;
+            this.fields = fields;
+        }
+
+        public Employee getBefore() {
+            return before;
+        }
+
+        public Employee getAfter() {
+            return after;
+        }
+
+        public EnumSet<Field> getFields() {
+            return fields;
+        }
+    }
+
+    /**
+     * The diff of a schedule against itself.
+     */
+    public static final ScheduleDiff NONE = new ScheduleDiff(false, null, Collections.<Employee>emptyList(),
+            Collections.<Employee>emptyList(), Collections.<Change>emptyList());
+
+    private final boolean dateChanged;
+    private final Change myChange;
+    private final List<Employee> added;
+    private final List<Employee> removed;
+    private final List<Change> changed;
+
+    private ScheduleDiff(boolean dateChanged, Change myChange, List<Employee> added, List<Employee> removed, List<Change> changed) {
+        this.dateChanged = dateChanged;
+        this.myChange = myChange;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    /**
+     * Compares two schedules.
+     *
+     * @param before The previously known schedule, or null if there is none.
+     * @param after  The freshly parsed schedule.
+     * @return The differences; everything counts as added when there was no previous schedule.
+     */
+    public static ScheduleDiff compute(Schedule before, Schedule after) {
+        if (before == null) {
+            return new ScheduleDiff(true, null, new ArrayList<>(after.getEmployees()),
+                    Collections.<Employee>emptyList(), Collections.<Change>emptyList());
+        }
+
+        boolean dateChanged = !before.getScheduleDate().equals(after.getScheduleDate());
+        Change myChange = compare(before.getMySchedule(), after.getMySchedule());
+
+        Map<String, Employee> previous = index(before.getEmployees());
+        List<Employee> added = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+
+        Map<String, Integer> seen = new HashMap<>();
+        for (Employee employee : after.getEmployees()) {
+            Employee old = previous.remove(keyOf(employee, seen));
+            if (old == null) {
+                added.add(employee);
+            } else {
+                Change change = compare(old, employee);
+                if (change != null) {
+                    changed.add(change);
+                }
+            }
+        }
+
+        // Whatever is left over was not matched by the new roster; kept in the old roster's order
+        List<Employee> removed = new ArrayList<>(previous.values());
+
+        return new ScheduleDiff(dateChanged, myChange, added, removed, changed);
+    }
+
+    private static Map<String, Employee> index(List<Employee> employees) {
+        // Insertion order, so whatever is left over comes out in roster order
+        Map<String, Employee> byKey = new LinkedHashMap<>(employees.size() * 2);
+        Map<String, Integer> seen = new HashMap<>();
+        for (Employee employee : employees) {
+            byKey.put(keyOf(employee, seen), employee);
+        }
+        return byKey;
+    }
+
+    /**
+     * Keys a row by name, numbering repeats so two people with the same name don't collide.
+     */
+    static String keyOf(Employee employee, Map<String, Integer> seen) {
+        String name = employee.getName();
+        Integer count = seen.get(name);
+        seen.put(name, count == null ? 1 : count + 1);
+        return count == null ? name : name + "#" + count;
+    }
+
+    private static Change compare(Employee before, Employee after) {
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        if (!before.getShift().equals(after.getShift())) {
+            fields.add(Field.SHIFT);
+        }
+        if (!before.getJob().equals(after.getJob())) {
+            fields.add(Field.JOB);
+        }
+        if (!before.getForeman().equals(after.getForeman())) {
+            fields.add(Field.FOREMAN);
+        }
+        if (!before.getCrew().equals(after.getCrew())) {
+            fields.add(Field.CREW);
+        }
+        if (!before.getJobAddress().equals(after.getJobAddress())) {
+            fields.add(Field.ADDRESS);
+        }
+        if (!before.getEmployeePhone().equals(after.getEmployeePhone())) {
+            fields.add(Field.PHONE);
+        }
+        if (!before.getForemanPhone().equals(after.getForemanPhone())) {
+            fields.add(Field.FOREMAN_PHONE);
+        }
+        return fields.isEmpty() ? null : new Change(before, after, fields);
+    }
+
+    public boolean isDateChanged() {
+        return dateChanged;
+    }
+
+    /**
+     * @return The change to your own row, or null if it is the same.
+     */
+    public Change getMyChange() {
+        return myChange;
+    }
+
+    public List<Employee> getAdded() {
+        return added;
+    }
+
+    public List<Employee> getRemoved() {
+        return removed;
+    }
+
+    public List<Change> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return True when nothing worth showing or notifying about changed.
+     */
+    public boolean isEmpty() {
+        return !dateChanged && myChange == null && added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return A one-line, human readable description of the diff, suitable for a notification.
+     */
+    public String summary(String scheduleDate) {
+        if (dateChanged) {
+            return "Your schedule has been updated for " + scheduleDate;
+        }
+
+        StringBuilder summary = new StringBuilder();
+        if (myChange != null) {
+            summary.append("Your ");
+            appendFields(summary, myChange.getFields());
+            summary.append(" changed.");
+        }
+
+        int crewChanges = added.size() + removed.size() + changed.size();
+        if (crewChanges > 0) {
+            if (summary.length() > 0) {
+                summary.append(' ');
+            }
+            summary.append(crewChanges).append(crewChanges == 1 ? " crew change" : " crew changes")
+                    .append(" (").append(added.size()).append(" added, ")
+                    .append(removed.size()).append(" removed, ")
+                    .append(changed.size()).append(" updated).");
+        }
+        return summary.toString();
+    }
+
+    private static void appendFields(StringBuilder summary, EnumSet<Field> fields) {
+        boolean first = true;
+        for (Field field : fields) {
+            if (!first) {
+                summary.append(", ");
+            }
+            summary.append(field.getLabel().toLowerCase());
+            first = false;
+        }
+    }
+}
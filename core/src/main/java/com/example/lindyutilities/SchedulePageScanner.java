@@ -0,0 +1,95 @@
+package com.example.lindyutilities;
+
+/**
+ * Cheap check of a response before it is handed to the parser.
+ * <p>
+ * Looks for a handful of ASCII markers in the raw bytes, so a login page or a page without any schedule
+ * tables is turned away in microseconds instead of going through a full parse. Pages that pass still get
+ * checked by {@link ScheduleParser} itself, which knows whether the employees table was actually there.
+ */
+public final class SchedulePageScanner {
+
+    /**
+     * How much of the page the scan looks at. Login and maintenance pages fit in this comfortably.
+     */
+    public static final int HEAD_BYTES = 32 * 1024;
+
+    private static final byte[] SCHEDULE_MARKER = ascii("dailyschedule");
+    private static final byte[][] PASSWORD_MARKERS = {
+            ascii("type=\"password\""), ascii("type='password'"), ascii("type=password")
+    };
+
+    private SchedulePageScanner() {
+    }
+
+    /**
+     * Checks a page held entirely in memory. Login markers are only looked for in the head, but the whole
+     * page is searched for the schedule marker, however long it is.
+     *
+     * @throws ScheduleParseException If the page is clearly not a schedule.
+     */
+    public static void check(byte[] page) throws ScheduleParseException {
+        check(page, Math.min(page.length, HEAD_BYTES), false);
+        if (indexOfIgnoreCase(page, page.length, SCHEDULE_MARKER) < 0) {
+            throw noScheduleTables();
+        }
+    }
+
+    /**
+     * @param head      The first bytes of the page.
+     * @param length    How many bytes of {@code head} to look at.
+     * @param wholePage Whether {@code head} holds the entire page.
+     * @throws ScheduleParseException If the page is clearly not a schedule.
+     */
+    public static void check(byte[] head, int length, boolean wholePage) throws ScheduleParseException {
+        if (length == 0) {
+            throw new ScheduleParseException(ScheduleParseException.Reason.TRUNCATED, "Empty response");
+        }
+        for (byte[] marker : PASSWORD_MARKERS) {
+            if (indexOfIgnoreCase(head, length, marker) >= 0) {
+                throw new ScheduleParseException(ScheduleParseException.Reason.AUTH_EXPIRED,
+                        "The schedule site returned a login page");
+            }
+        }
+        // A longer page may still have its tables past the head; the parser decides for those
+        if (wholePage && indexOfIgnoreCase(head, length, SCHEDULE_MARKER) < 0) {
+            throw noScheduleTables();
+        }
+    }
+
+    private static ScheduleParseException noScheduleTables() {
+        return new ScheduleParseException(ScheduleParseException.Reason.LAYOUT_CHANGED, "The page has no schedule tables");
+    }
+
+    /**
+     * @param needle Lowercase ASCII.
+     */
+    private static int indexOfIgnoreCase(byte[] haystack, int length, byte[] needle) {
+        byte first = needle[0];
+        for (int i = 0, last = length - needle.length; i <= last; i++) {
+            if (toLower(haystack[i]) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < needle.length && toLower(haystack[i + j]) == needle[j]) {
+                j++;
+            }
+            if (j == needle.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static byte[] ascii(String s) {
+        byte[] bytes = new byte[s.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a response turns out not to be a usable schedule page.
+ */
+public class ScheduleParseException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Why the page was rejected.
+     */
+    public enum Reason {
+        /**
+         * The site answered with its login page instead of the schedule.
+         */
+        AUTH_EXPIRED,
+        /**
+         * The page doesn't have the tables the parser expects, e.g. a maintenance page or a redesign.
+         */
+        LAYOUT_CHANGED,
+        /**
+         * The page was cut off before it ended.
+         */
+        TRUNCATED
+    }
+
+    private final Reason reason;
+
+    public ScheduleParseException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
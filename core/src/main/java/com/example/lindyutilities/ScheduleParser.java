@@ -0,0 +1,256 @@
+package com.example.lindyutilities;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass parser for the daily schedule page.
+ * <p>
+ * Elements are handled as their closing tags stream in, and every row is dropped from the tree
+ * once it has been read, so the full DOM is never held in memory. The output matches what the
+ * old two-pass {@code Jsoup.parse} + {@code table.dailySchedule} walk produced.
+ * <p>
+ * Pages without the employees table, or that end before both the employees table's {@code </table>} and
+ * the page's {@code </html>}, are rejected with a {@link ScheduleParseException} rather than parsed into
+ * an empty or partial schedule. jsoup quietly closes whatever is still open at the end of the input, so
+ * the end tags are counted in the raw markup as it streams past.
+ * <p>
+ * A parser instance holds per-page state, so create a new one for every page. Plain Java, no
+ * Android dependencies.
+ */
+public class ScheduleParser {
+
+    private static final int EMPLOYEES_TABLE_INDEX = 1; // Second table.dailySchedule on the page
+
+    private final Map<Element, Integer> tableIndexes = new IdentityHashMap<>();
+    private final List<Employee> employees = new ArrayList<>();
+    private final StringPool pool = new StringPool(); // Repeated column values are shared across rows
+    private final ScheduleRowReader rowReader = new ScheduleRowReader(pool);
+    private StreamParser streamParser;
+
+    private String scheduleDate = null;
+    private Element headerElement = null; // Parent of the first `h3 span.dailySchedule`
+    private Employee mySchedule = null;
+    private boolean employeesTableSeen = false;
+
+    // Row waiting for the next <tr> to tell us whether it carries a job address
+    private Employee pendingEmployee = null;
+    private boolean pendingIsCurrent = false;
+
+    /**
+     * Parses a whole page held in memory, turning obvious non-schedule pages away before parsing.
+     */
+    public Schedule parse(byte[] page, Charset charset) throws IOException {
+        SchedulePageScanner.check(page);
+        return parse(new InputStreamReader(new ByteArrayInputStream(page), charset));
+    }
+
+    /**
+     * Parses a schedule page from the given reader, consuming it exactly once.
+     *
+     * @param reader Character stream of the page body.
+     * @return The parsed schedule.
+     * @throws ScheduleParseException If the page has no employees table or was cut off.
+     */
+    public Schedule parse(Reader reader) throws IOException {
+        EndTagReader tags = new EndTagReader(reader);
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())) {
+            streamParser = parser.parse(tags, "");
+            Iterator<Element> it = streamParser.iterator();
+            while (it.hasNext()) {
+                Element element = it.next();
+                if (element.nameIs("tr")) {
+                    handleRow(element);
+                } else if (scheduleDate == null) {
+                    handleHeader(element);
+                }
+            }
+            completePendingRow("N/A");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Every table opened (the employees table among them) was closed by the page itself
+        boolean complete = tags.htmlClosed || employeesTableSeen && tags.tablesClosed >= tags.tablesOpened;
+        if (!complete) {
+            throw new ScheduleParseException(ScheduleParseException.Reason.TRUNCATED,
+                    "The page ended before the employees table or the page was closed");
+        }
+        if (!employeesTableSeen) {
+            throw new ScheduleParseException(ScheduleParseException.Reason.LAYOUT_CHANGED, "No employees table on the page");
+        }
+
+        if (scheduleDate == null) {
+            scheduleDate = "Not Found";
+        }
+
+        // If no "current" row was found, ensure mySchedule has a default value
+        if (mySchedule == null) {
+            mySchedule = new Employee("You", "N/A", "Not scheduled today", "N/A", "N/A", "N/A", "N/A", "N/A");
+        }
+
+        return new Schedule(scheduleDate, mySchedule, employees);
+    }
+
+    private void handleHeader(Element element) {
+        if (headerElement == null) {
+            // Select the `<span>` in the `<h3>`; its parent is complete once it closes
+            if (element.nameIs("span") && element.hasClass("dailySchedule") && hasAncestor(element, "h3")) {
+                headerElement = element.parent();
+            }
+        } else if (element == headerElement) {
+            String fullText = element.text();
+            scheduleDate = fullText.replace("Daily Schedule for ", "").trim(); // Extract and clean up the date
+        }
+    }
+
+    private void handleRow(Element row) {
+        if (isInEmployeesTable(row)) {
+            if (pendingEmployee != null) {
+                String address = ScheduleRowReader.addressOf(row);
+                if (address != null) {
+                    completePendingRow(address);
+                    row.remove();
+                    return; // Skip the address row
+                }
+                completePendingRow("N/A");
+            }
+
+            // Handle your personal entry (row with "current" class) and everyone else (rows with "empRow" class)
+            if (row.hasClass("current") || row.hasClass("empRow")) {
+                pendingEmployee = rowReader.read(row);
+                pendingIsCurrent = row.hasClass("current");
+            }
+        }
+        row.remove(); // Done with this row; keep the partial tree small
+    }
+
+    private void completePendingRow(String jobAddress) {
+        if (pendingEmployee == null) {
+            return;
+        }
+        if (pendingIsCurrent) {
+            jobAddress = jobAddress.replace("Job Address: ", "").trim(); // Clean up address
+            // Assign this employee as "You"
+            mySchedule = pendingEmployee.withJobAddress(pool.intern(jobAddress));
+        } else {
+            employees.add(pendingEmployee.withJobAddress(pool.intern(jobAddress)));
+        }
+        pendingEmployee = null;
+    }
+
+    private boolean isInEmployeesTable(Element row) {
+        for (Element parent = row.parent(); parent != null; parent = parent.parent()) {
+            if (parent.nameIs("table") && parent.hasClass("dailySchedule")
+                    && tableIndex(parent) == EMPLOYEES_TABLE_INDEX) {
+                employeesTableSeen = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int tableIndex(Element table) {
+        Integer index = tableIndexes.get(table);
+        if (index == null) {
+            // The partial tree holds every table opened so far, so this is the document-order index
+            index = streamParser.document().select("table.dailySchedule").indexOf(table);
+            tableIndexes.put(table, index);
+        }
+        return index;
+    }
+
+    private static boolean hasAncestor(Element element, String tagName) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            if (parent.nameIs(tagName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts {@code <table>}, {@code </table>} and {@code </html>} tags in the raw markup, case-insensitively
+     * and across buffer boundaries. Tags inside comments or scripts are counted too, which the real page
+     * never has.
+     */
+    private static final class EndTagReader extends FilterReader {
+        private static final char[] TABLE_OPEN = "<table".toCharArray();
+        private static final char[] TABLE_CLOSE = "</table".toCharArray();
+        private static final char[] HTML_CLOSE = "</html".toCharArray();
+
+        int tablesOpened = 0;
+        int tablesClosed = 0;
+        boolean htmlClosed = false;
+        private int tableOpenMatched = 0;
+        private int tableCloseMatched = 0;
+        private int htmlCloseMatched = 0;
+
+        EndTagReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                scan((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            for (int i = offset; i < offset + n; i++) {
+                scan(buffer[i]);
+            }
+            return n;
+        }
+
+        private void scan(char c) {
+            char lower = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            if (tableOpenMatched == TABLE_OPEN.length && isNameEnd(lower)) {
+                tablesOpened++;
+            }
+            if (tableCloseMatched == TABLE_CLOSE.length && isNameEnd(lower)) {
+                tablesClosed++;
+            }
+            if (htmlCloseMatched == HTML_CLOSE.length && isNameEnd(lower)) {
+                htmlClosed = true;
+            }
+            tableOpenMatched = advance(TABLE_OPEN, tableOpenMatched, lower);
+            tableCloseMatched = advance(TABLE_CLOSE, tableCloseMatched, lower);
+            htmlCloseMatched = advance(HTML_CLOSE, htmlCloseMatched, lower);
+        }
+
+        /**
+         * @return How much of {@code tag} has been matched after {@code c}. A full match waits for the
+         * character that ends the tag name, so {@code <tablet>} doesn't count.
+         */
+        private static int advance(char[] tag, int matched, char c) {
+            if (matched < tag.length && c == tag[matched]) {
+                return matched + 1;
+            }
+            return c == '<' ? 1 : 0; // Every tag starts with the only '<' in it
+        }
+
+        private static boolean isNameEnd(char c) {
+            return c == '>' || c == '/' || Character.isWhitespace(c);
+        }
+    }
+}
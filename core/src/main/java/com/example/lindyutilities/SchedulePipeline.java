@@ -0,0 +1,239 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okio.ByteString;
+
+/**
+ * One employee's schedule update from a {@link ScheduleSource}: conditional fetch, fingerprint, pre-scan
+ * and parse, diff against the saved snapshot, and persist. Plain Java, so the whole pipeline also runs
+ * off-device against a file or a recording; sharing updates between callers and posting notifications
+ * is left to the caller.
+ * <p>
+ * Sources call back on their own threads and only hand the bytes over. Everything CPU bound runs on the
+ * {@link ParseExecutor} in the update's lane.
+ */
+public class SchedulePipeline {
+
+    /**
+     * Where the validators and body fingerprint of the last full response are kept between updates.
+     */
+    public interface ValidatorStore {
+        String getETag();
+
+        String getLastModified();
+
+        String getFingerprint();
+
+        void save(String etag, String lastModified, String fingerprint);
+    }
+
+    /**
+     * Hears how an update ended; exactly one of the first three methods is called.
+     */
+    public interface Listener {
+        /**
+         * @param outcome {@code CHANGED}, {@code UNCHANGED} or {@code NOT_MODIFIED}.
+         */
+        void onComplete(Schedule schedule, ScheduleDiff diff, RunRecord.Outcome outcome);
+
+        void onInvalidPage(ScheduleParseException e);
+
+        void onError(String error);
+
+        /**
+         * The update still completes; only the snapshot or the archive missed it.
+         */
+        default void onPersistFailed(IOException e) {
+        }
+    }
+
+    /**
+     * One run of the pipeline. Create it, then {@link #start()} it.
+     */
+    public final class Update {
+        private final RunRecord run;
+        private final Listener listener;
+        private ParseExecutor.Lane lane; // Guarded by this
+        private ParseExecutor.Task task; // Guarded by this; set once the response is in
+
+        Update(ParseExecutor.Lane lane, RunRecord run, Listener listener) {
+            this.lane = lane;
+            this.run = run;
+            this.listener = listener;
+        }
+
+        public void start() {
+            fetch(this, true);
+        }
+
+        /**
+         * Moves the update to the foreground lane, e.g. once someone on screen is waiting for it.
+         */
+        public void promote() {
+            synchronized (this) {
+                lane = ParseExecutor.Lane.FOREGROUND;
+                if (task != null) {
+                    task.promote();
+                }
+            }
+        }
+    }
+
+    private final String employeeId;
+    private final ScheduleSource source;
+    private final ScheduleSnapshotStore snapshotStore;
+    private final ScheduleArchive archive;
+    private final ValidatorStore validators;
+    private final ParseExecutor executor;
+
+    /**
+     * @param archive May be null to keep no history.
+     */
+    public SchedulePipeline(String employeeId, ScheduleSource source, ScheduleSnapshotStore snapshotStore,
+                            ScheduleArchive archive, ValidatorStore validators, ParseExecutor executor) {
+        this.employeeId = employeeId;
+        this.source = source;
+        this.snapshotStore = snapshotStore;
+        this.archive = archive;
+        this.validators = validators;
+        this.executor = executor;
+    }
+
+    /**
+     * @param run Where stage timings go; null when metrics are off.
+     */
+    public Update newUpdate(ParseExecutor.Lane lane, RunRecord run, Listener listener) {
+        return new Update(lane, run, listener);
+    }
+
+    private void fetch(Update update, boolean conditional) {
+        ScheduleSource.Request request = conditional
+                ? new ScheduleSource.Request(employeeId, validators.getETag(), validators.getLastModified())
+                : new ScheduleSource.Request(employeeId, null, null);
+        long fetchStart = Metrics.now();
+        source.fetch(request, new ScheduleSource.Callback() {
+            @Override
+            public void onResponse(ScheduleSource.Response response) {
+                Metrics.record(update.run, Metrics.Stage.FETCH, fetchStart); // Including the body
+                if (response.isNotModified()) {
+                    process(update, () -> onNotModified(update));
+                } else if (!response.isSuccessful() || response.getBody() == null) {
+                    update.listener.onError("Error: HTTP " + response.getCode());
+                } else {
+                    process(update, () -> onPage(update, response));
+                }
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                update.listener.onError("Error: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queues a processing job for an update in its current lane, keyed by employee.
+     */
+    private void process(Update update, Runnable job) {
+        ParseExecutor.Lane lane;
+        synchronized (update) {
+            lane = update.lane;
+        }
+        // Submit outside the lock: superseding a queued job calls back into its listener
+        ParseExecutor.Task task = executor.submit(lane, employeeId, job,
+                () -> update.listener.onError("Error: Schedule update was superseded"));
+        synchronized (update) {
+            update.task = task;
+            if (update.lane != lane) {
+                task.promote(); // Promoted while we were submitting
+            }
+        }
+    }
+
+    private void onNotModified(Update update) {
+        Schedule previous = snapshotStore.load();
+        if (previous == null) {
+            // Validators outlived the snapshot; ask for the full page
+            fetch(update, false);
+            return;
+        }
+        update.listener.onComplete(previous, ScheduleDiff.NONE, RunRecord.Outcome.NOT_MODIFIED);
+    }
+
+    /**
+     * The MD5 of a page, hashed in place; {@code ByteString.of(page).md5()} would copy the page first.
+     */
+    public static String fingerprintOf(byte[] page) {
+        try {
+            return ByteString.of(MessageDigest.getInstance("MD5").digest(page)).hex();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required on every Java platform", e);
+        }
+    }
+
+    private void onPage(Update update, ScheduleSource.Response response) {
+        Schedule previous = snapshotStore.load();
+        byte[] page = response.getBody();
+        String fingerprint = fingerprintOf(page);
+        if (previous != null && fingerprint.equals(validators.getFingerprint())) {
+            validators.save(response.getETag(), response.getLastModified(), fingerprint);
+            update.listener.onComplete(previous, ScheduleDiff.NONE, RunRecord.Outcome.NOT_MODIFIED);
+            return;
+        }
+
+        Schedule schedule;
+        long parseStart = Metrics.now();
+        try {
+            // Login and maintenance pages are turned away by a pre-scan before the full parse
+            schedule = new ScheduleParser().parse(page, response.getCharset());
+        } catch (ScheduleParseException e) {
+            update.listener.onInvalidPage(e);
+            return;
+        } catch (IOException | RuntimeException e) {
+            update.listener.onError("Error: " + e.getMessage());
+            return;
+        }
+        Metrics.record(update.run, Metrics.Stage.PARSE, parseStart);
+
+        ScheduleDiff diff;
+        IOException snapshotFailure = null;
+        IOException archiveFailure = null;
+        try {
+            long diffStart = Metrics.now();
+            diff = ScheduleDiff.compute(previous, schedule);
+            Metrics.record(update.run, Metrics.Stage.DIFF, diffStart);
+            if (!diff.isEmpty()) {
+                long persistStart = Metrics.now();
+                try {
+                    snapshotStore.save(schedule);
+                } catch (IOException e) {
+                    snapshotFailure = e;
+                }
+                try {
+                    if (archive != null) {
+                        archive.append(schedule); // Keeps past days once the page moves on
+                    }
+                } catch (IOException e) {
+                    archiveFailure = e;
+                }
+                Metrics.record(update.run, Metrics.Stage.PERSIST, persistStart);
+            }
+            // Only now, so an update that dies above is fetched in full next time rather than answered by a 304
+            validators.save(response.getETag(), response.getLastModified(), fingerprint);
+        } catch (RuntimeException e) {
+            update.listener.onError("Error: " + e);
+            return;
+        }
+        if (snapshotFailure != null) {
+            update.listener.onPersistFailed(snapshotFailure);
+        }
+        if (archiveFailure != null) {
+            update.listener.onPersistFailed(archiveFailure);
+        }
+        update.listener.onComplete(schedule, diff,
+                diff.isEmpty() ? RunRecord.Outcome.UNCHANGED : RunRecord.Outcome.CHANGED);
+    }
+}
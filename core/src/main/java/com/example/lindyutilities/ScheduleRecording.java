@@ -0,0 +1,148 @@
+package com.example.lindyutilities;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source responses captured to disk for {@link ReplayScheduleSource}, in the order they arrived.
+ * <p>
+ * Layout: a header (magic, version) followed by one entry per fetch: the latency in milliseconds, then
+ * either the failure message or the status code, charset, validators and body. Entries are only appended,
+ * and a torn last entry is ignored when reading.
+ */
+public class ScheduleRecording {
+
+    private static final int MAGIC = 0x4C535243; // "LSRC"
+    private static final int VERSION = 1;
+
+    /**
+     * One recorded fetch: a response or a failure, and how long it took.
+     */
+    public static final class Entry {
+        private final long latencyMillis;
+        private final ScheduleSource.Response response;
+        private final String failure;
+
+        public Entry(long latencyMillis, ScheduleSource.Response response, String failure) {
+            this.latencyMillis = latencyMillis;
+            this.response = response;
+            this.failure = failure;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * @return The response, or null if the fetch failed.
+         */
+        public ScheduleSource.Response getResponse() {
+            return response;
+        }
+
+        /**
+         * @return The failure message, or null if there was a response.
+         */
+        public String getFailure() {
+            return failure;
+        }
+    }
+
+    private final File file;
+
+    public ScheduleRecording(File file) {
+        this.file = file;
+    }
+
+    public synchronized void append(Entry entry) throws IOException {
+        boolean fresh = !file.exists() || file.length() == 0;
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+            if (fresh) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+            }
+            out.writeLong(entry.getLatencyMillis());
+            ScheduleSource.Response response = entry.getResponse();
+            out.writeBoolean(response != null);
+            if (response == null) {
+                out.writeUTF(String.valueOf(entry.getFailure()));
+            } else {
+                out.writeInt(response.getCode());
+                out.writeUTF(response.getCharset().name());
+                writeNullable(out, response.getETag());
+                writeNullable(out, response.getLastModified());
+                byte[] body = response.getBody();
+                out.writeInt(body != null ? body.length : -1);
+                if (body != null) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Every complete entry, oldest first.
+     */
+    public synchronized List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!file.exists()) {
+            return entries;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a schedule recording: " + file);
+            }
+            while (true) {
+                long latencyMillis;
+                try {
+                    latencyMillis = in.readLong();
+                } catch (EOFException e) {
+                    break; // Clean end
+                }
+                try {
+                    entries.add(readEntry(in, latencyMillis));
+                } catch (EOFException e) {
+                    break; // Torn last entry
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry readEntry(DataInputStream in, long latencyMillis) throws IOException {
+        if (!in.readBoolean()) {
+            return new Entry(latencyMillis, null, in.readUTF());
+        }
+        int code = in.readInt();
+        Charset charset = Charset.forName(in.readUTF());
+        String etag = readNullable(in);
+        String lastModified = readNullable(in);
+        int length = in.readInt();
+        byte[] body = null;
+        if (length >= 0) {
+            body = new byte[length];
+            in.readFully(body);
+        }
+        return new Entry(latencyMillis, new ScheduleSource.Response(code, body, charset, etag, lastModified), null);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
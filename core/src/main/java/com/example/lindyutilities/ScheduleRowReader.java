@@ -0,0 +1,203 @@
+package com.example.lindyutilities;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.util.List;
+
+/**
+ * Reads employee rows of one schedule table by column position.
+ * <p>
+ * The cell for each column is located once, from the first row read, and later rows are read by index.
+ * A row whose cell at that index doesn't carry the expected classes (e.g. a row laid out differently)
+ * falls back to scanning its cells. Output matches the old per-row {@code select} calls, including the
+ * HTML-escaped job name, without re-serializing cells or splitting on a regex.
+ * <p>
+ * Holds per-table state, so use one reader per parse.
+ */
+public class ScheduleRowReader {
+
+    private static final String TABLE_CLASS = "dailySchedule";
+    private static final String ADDRESS_CLASS = "pnm-comments";
+
+    /**
+     * The columns we read, by the class their cells carry next to {@code dailySchedule}.
+     */
+    private enum Column {
+        EMPLOYEE("employee"),
+        SHIFT("shift"),
+        JOB("job"),
+        FOREMAN("foreman"),
+        CREW("crew");
+
+        final String className;
+
+        Column(String className) {
+            this.className = className;
+        }
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+
+    private final StringPool pool;
+    private final int[] positions = new int[COLUMNS.length];
+    private boolean resolved = false;
+
+    public ScheduleRowReader(StringPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Reads one employee row. The job address is filled in later from the row that follows.
+     */
+    public Employee read(Element row) {
+        List<Element> cells = row.children();
+        if (!resolved) {
+            resolve(cells);
+        }
+
+        // Extract name (exclude <span> content) and phone number (from span.empComments)
+        String name = "N/A";
+        String employeePhone = "N/A";
+        Element employeeColumn = cell(cells, Column.EMPLOYEE);
+        if (employeeColumn != null) {
+            name = employeeColumn.ownText();
+            Element phoneElement = firstSpan(employeeColumn, "empComments", null);
+            if (phoneElement != null) {
+                employeePhone = phoneElement.text();
+            }
+        }
+
+        Element shiftColumn = cell(cells, Column.SHIFT);
+        String shift = shiftColumn != null ? shiftColumn.text() : "";
+
+        Element jobColumn = cell(cells, Column.JOB);
+        String job = jobColumn != null ? jobName(jobColumn) : "";
+
+        // Extract foreman name (exclude <span> content) and phone number (from span.noWrap.empComments)
+        String foreman = "N/A";
+        String foremanPhone = "N/A";
+        Element foremanColumn = cell(cells, Column.FOREMAN);
+        if (foremanColumn != null) {
+            foreman = foremanColumn.ownText();
+            Element foremanPhoneElement = firstSpan(foremanColumn, "noWrap", "empComments");
+            if (foremanPhoneElement != null) {
+                foremanPhone = foremanPhoneElement.text();
+            }
+        }
+
+        Element crewColumn = cell(cells, Column.CREW);
+        String crew = crewColumn != null ? crewColumn.text() : "";
+
+        return new Employee(name, pool.intern(shift), pool.intern(job), pool.intern(foreman), pool.intern(crew),
+                "N/A", pool.intern(employeePhone), pool.intern(foremanPhone));
+    }
+
+    /**
+     * @return The text of the row's job address cell, or null if this is not an address row.
+     */
+    public static String addressOf(Element row) {
+        String address = null;
+        for (Element cell : row.children()) {
+            if (cell.hasClass(ADDRESS_CLASS) && cell.hasClass(TABLE_CLASS)) {
+                address = address == null ? cell.text() : address + " " + cell.text();
+            }
+        }
+        return address;
+    }
+
+    private void resolve(List<Element> cells) {
+        for (Column column : COLUMNS) {
+            positions[column.ordinal()] = scan(cells, column);
+        }
+        resolved = true;
+    }
+
+    private Element cell(List<Element> cells, Column column) {
+        int position = positions[column.ordinal()];
+        if (position >= 0 && position < cells.size() && isCell(cells.get(position), column)) {
+            return cells.get(position);
+        }
+        position = scan(cells, column);
+        return position >= 0 ? cells.get(position) : null;
+    }
+
+    private static int scan(List<Element> cells, Column column) {
+        for (int i = 0; i < cells.size(); i++) {
+            if (isCell(cells.get(i), column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCell(Element cell, Column column) {
+        return cell.hasClass(column.className) && cell.hasClass(TABLE_CLASS);
+    }
+
+    /**
+     * First descendant span with the given class(es), in document order.
+     */
+    private static Element firstSpan(Element root, String className, String otherClassName) {
+        for (Element element : root.getAllElements()) {
+            if (element != root && element.nameIs("span") && element.hasClass(className)
+                    && (otherClassName == null || element.hasClass(otherClassName))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The job cell's markup before its "Job Schedule" {@code <div>}, as the page's pretty-printed HTML
+     * (collapsed whitespace, escaped {@code & < >} and non-breaking spaces), trimmed.
+     */
+    private static String jobName(Element jobColumn) {
+        StringBuilder html = new StringBuilder();
+        boolean lastWasSpace = false;
+        for (Node node : jobColumn.childNodes()) {
+            if (node instanceof Element && ((Element) node).nameIs("div")) {
+                break;
+            }
+            if (!(node instanceof TextNode)) {
+                return legacyJobName(jobColumn); // Markup before the link; let jsoup serialize it
+            }
+            String text = ((TextNode) node).getWholeText();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+                    if (!lastWasSpace) {
+                        html.append(' ');
+                        lastWasSpace = true;
+                    }
+                    continue;
+                }
+                lastWasSpace = false;
+                switch (c) {
+                    case '&':
+                        html.append("&amp;");
+                        break;
+                    case '<':
+                        html.append("&lt;");
+                        break;
+                    case '>':
+                        html.append("&gt;");
+                        break;
+                    case '\u00a0':
+                        html.append("&nbsp;");
+                        break;
+                    default:
+                        html.append(c);
+                }
+            }
+        }
+        return html.toString().trim();
+    }
+
+    private static String legacyJobName(Element jobColumn) {
+        String html = jobColumn.html();
+        int div = html.indexOf("<div");
+        return (div >= 0 ? html.substring(0, div) : html).trim();
+    }
+}
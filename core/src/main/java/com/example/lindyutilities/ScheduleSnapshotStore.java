@@ -0,0 +1,136 @@
+package com.example.lindyutilities;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last successfully parsed schedule on disk so the app can show it before the network answers.
+ * <p>
+ * The snapshot is a small length-prefixed binary file: a header, the schedule date, your own row and the
+ * crew rows, each string written with {@link DataOutputStream#writeUTF}. Saves go to a temp file that is
+ * renamed over the snapshot, so a crash mid-write never leaves a torn file behind.
+ */
+public class ScheduleSnapshotStore {
+
+    private static final int MAGIC = 0x4C534348; // "LSCH"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final Object LOCK = new Object(); // Activity and worker each open their own store
+
+    private final File file;
+    private final File tempFile;
+
+    public ScheduleSnapshotStore(File directory, String employeeId) {
+        this.file = new File(directory, "schedule_" + employeeId + ".bin");
+        this.tempFile = new File(directory, "schedule_" + employeeId + ".bin.tmp");
+    }
+
+    /**
+     * Atomically replaces the stored snapshot with the given schedule.
+     */
+    public void save(Schedule schedule) throws IOException {
+        synchronized (LOCK) {
+            writeSnapshot(schedule);
+        }
+    }
+
+    private void writeSnapshot(Schedule schedule) throws IOException {
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeSchedule(out, schedule);
+            out.flush();
+            fileOut.getFD().sync(); // Make sure the bytes are on disk before the rename
+        }
+
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException("Unable to replace schedule snapshot " + file);
+        }
+    }
+
+    /**
+     * Loads the stored snapshot.
+     *
+     * @return The last saved schedule, or null if there is none or it can't be read.
+     */
+    public Schedule load() {
+        synchronized (LOCK) {
+            return readSnapshot();
+        }
+    }
+
+    private Schedule readSnapshot() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null; // Unknown format, wait for the next fetch to rewrite it
+            }
+            return readSchedule(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return When the snapshot was last written, in epoch millis, or 0 if there is none.
+     */
+    public long lastSaved() {
+        return file.lastModified();
+    }
+
+    /**
+     * Writes a schedule in the snapshot's body format. {@link ScheduleArchive} records use it too.
+     */
+    static void writeSchedule(DataOutputStream out, Schedule schedule) throws IOException {
+        out.writeUTF(schedule.getScheduleDate());
+        writeEmployee(out, schedule.getMySchedule());
+
+        List<Employee> employees = schedule.getEmployees();
+        out.writeInt(employees.size());
+        for (Employee employee : employees) {
+            writeEmployee(out, employee);
+        }
+    }
+
+    static Schedule readSchedule(DataInputStream in) throws IOException {
+        String scheduleDate = in.readUTF();
+        StringPool pool = new StringPool();
+        Employee mySchedule = readEmployee(in, pool);
+
+        int count = in.readInt();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(readEmployee(in, pool));
+        }
+        return new Schedule(scheduleDate, mySchedule, employees);
+    }
+
+    private static void writeEmployee(DataOutputStream out, Employee employee) throws IOException {
+        out.writeUTF(employee.getName());
+        out.writeUTF(employee.getShift());
+        out.writeUTF(employee.getJob());
+        out.writeUTF(employee.getForeman());
+        out.writeUTF(employee.getCrew());
+        out.writeUTF(employee.getJobAddress());
+        out.writeUTF(employee.getEmployeePhone());
+        out.writeUTF(employee.getForemanPhone());
+    }
+
+    private static Employee readEmployee(DataInputStream in, StringPool pool) throws IOException {
+        // Same field order as writeEmployee; repeated columns share one instance per value
+        return new Employee(in.readUTF(), pool.intern(in.readUTF()), pool.intern(in.readUTF()), pool.intern(in.readUTF()),
+                pool.intern(in.readUTF()), pool.intern(in.readUTF()), pool.intern(in.readUTF()), pool.intern(in.readUTF()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Where the update pipeline gets schedule pages from: the live site, a saved file, or a recording.
+ * Implementations call back exactly once per fetch, on a thread of their own.
+ */
+public interface ScheduleSource {
+
+    /**
+     * A request for one employee's page, with the validators of the last full response, if any.
+     */
+    final class Request {
+        private final String employeeId;
+        private final String etag;
+        private final String lastModified;
+
+        public Request(String employeeId, String etag, String lastModified) {
+            this.employeeId = employeeId;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getEmployeeId() {
+            return employeeId;
+        }
+
+        /**
+         * @return The ETag to send as If-None-Match, or null for an unconditional request.
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return The date to send as If-Modified-Since, or null.
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * A response, with its body already read into memory. That is the one copy of the page the update
+     * holds; a 5,000-row page is about 2.3 MB.
+     */
+    final class Response {
+        private final int code;
+        private final byte[] body;
+        private final Charset charset;
+        private final String etag;
+        private final String lastModified;
+
+        /**
+         * @param body Null for a 304 or a response without a body.
+         */
+        public Response(int code, byte[] body, Charset charset, String etag, String lastModified) {
+            this.code = code;
+            this.body = body;
+            this.charset = charset;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public boolean isSuccessful() {
+            return code >= 200 && code < 300;
+        }
+
+        public boolean isNotModified() {
+            return code == 304;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public Charset getCharset() {
+            return charset;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
+    interface Callback {
+        void onResponse(Response response);
+
+        void onFailure(IOException e);
+    }
+
+    void fetch(Request request, Callback callback);
+}
@@ -0,0 +1,282 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares schedule updates between callers. Callers asking for the same employee while an update is running
+ * join it instead of fetching again, and for a short window after it completes they get its result straight
+ * back. However many callers share an update, a change it finds is reported to its {@link Hooks} once, and
+ * a caller answered from the memo is told nothing changed, since that update already reported it.
+ * <p>
+ * Plain Java with an injectable clock; the app keeps one for the whole process.
+ */
+public class ScheduleUpdates {
+
+    public static final long DEFAULT_MEMO_WINDOW_MILLIS = 30_000;
+
+    /**
+     * Monotonic time, in millis.
+     */
+    public interface Clock {
+        long elapsedMillis();
+    }
+
+    /**
+     * How a request ended, for one caller.
+     */
+    public interface Callback {
+        void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees);
+
+        void onError(String error);
+
+        /**
+         * Called instead of onSuccess when a conditional request finds nothing new.
+         */
+        default void onNotModified() {
+        }
+
+        /**
+         * Called instead of onError when the server answered with something other than a schedule page.
+         */
+        default void onInvalidPage(ScheduleParseException.Reason reason, String error) {
+            onError(error);
+        }
+    }
+
+    /**
+     * What the app does with a finished update. Called once per update, before any caller hears back. Callers
+     * hear back even if a hook throws; the exception then goes on to the thread that ran the update.
+     */
+    public interface Hooks {
+        /**
+         * @param notify Whether any caller sharing the update asked for a notification.
+         */
+        void onChanged(String employeeId, Schedule schedule, ScheduleDiff diff, boolean notify);
+
+        default void onRejected(String employeeId, ScheduleParseException e) {
+        }
+
+        default void onPersistFailed(String employeeId, IOException e) {
+        }
+    }
+
+    /**
+     * One run of the pipeline and everyone waiting on it.
+     */
+    private static class PendingUpdate {
+        final String employeeId;
+        final Hooks hooks;
+        final List<Waiter> waiters = new ArrayList<>();
+        boolean notify = false;
+        RunRecord run = null; // Null when metrics are off
+        boolean foreground = false;
+        SchedulePipeline.Update update = null;
+        final List<IOException> persistFailures = new ArrayList<>(); // Reported with the result
+
+        PendingUpdate(String employeeId, Hooks hooks) {
+            this.employeeId = employeeId;
+            this.hooks = hooks;
+        }
+    }
+
+    /**
+     * The result of the last completed update, reused while it is fresh.
+     */
+    private static class Memo {
+        final Schedule schedule;
+        final long completedAt;
+
+        Memo(Schedule schedule, long completedAt) {
+            this.schedule = schedule;
+            this.completedAt = completedAt;
+        }
+    }
+
+    private static class Waiter {
+        final Callback callback;
+        final boolean onlyIfChanged;
+
+        Waiter(Callback callback, boolean onlyIfChanged) {
+            this.callback = callback;
+            this.onlyIfChanged = onlyIfChanged;
+        }
+    }
+
+    private final Clock clock;
+
+    // Running updates and the last completed one, by employee ID; all guarded by inFlight
+    private final Map<String, PendingUpdate> inFlight = new HashMap<>();
+    private final Map<String, Memo> memos = new HashMap<>();
+    private long memoWindowMillis = DEFAULT_MEMO_WINDOW_MILLIS;
+
+    public ScheduleUpdates(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets how long a completed update is reused before callers trigger a new fetch. Zero disables reuse.
+     */
+    public void setMemoWindowMillis(long windowMillis) {
+        synchronized (inFlight) {
+            memoWindowMillis = Math.max(0, windowMillis);
+        }
+    }
+
+    /**
+     * Runs an update for an employee, or joins or reuses one.
+     *
+     * @param pipeline      Runs the update if a new one is needed.
+     * @param hooks         Hears about the update if this request starts it.
+     * @param onlyIfChanged Report {@link Callback#onNotModified()} unless the schedule changed.
+     * @param notify        Ask for a notification if the update finds a change.
+     * @param lane          Where the update's processing runs; a foreground request promotes a shared update.
+     */
+    public void request(String employeeId, SchedulePipeline pipeline, Hooks hooks, Callback callback,
+                        boolean onlyIfChanged, boolean notify, ParseExecutor.Lane lane) {
+        PendingUpdate pending;
+        Memo memo;
+        boolean start = false;
+        synchronized (inFlight) {
+            memo = memos.get(employeeId);
+            if (memo != null && clock.elapsedMillis() - memo.completedAt < memoWindowMillis) {
+                Metrics.increment(Metrics.Counter.MEMO_HIT);
+                pending = null;
+            } else {
+                memo = null;
+                pending = inFlight.get(employeeId);
+                if (pending == null) {
+                    pending = new PendingUpdate(employeeId, hooks);
+                    inFlight.put(employeeId, pending);
+                    pending.run = Metrics.startRun(notify);
+                    pending.foreground = lane == ParseExecutor.Lane.FOREGROUND;
+                    pending.update = pipeline.newUpdate(lane, pending.run, listenerFor(pending));
+                    start = true;
+                    Metrics.increment(Metrics.Counter.FETCH_STARTED);
+                } else {
+                    Metrics.increment(Metrics.Counter.COALESCED);
+                }
+                pending.waiters.add(new Waiter(callback, onlyIfChanged));
+                pending.notify |= notify;
+                if (lane == ParseExecutor.Lane.FOREGROUND && !pending.foreground) {
+                    // Someone is now waiting on screen; don't let the job sit behind background work
+                    pending.foreground = true;
+                    pending.update.promote();
+                }
+            }
+        }
+
+        if (memo != null) {
+            // Checked moments ago: nothing can be newer than what that update already reported
+            if (onlyIfChanged) {
+                callback.onNotModified();
+            } else {
+                Schedule schedule = memo.schedule;
+                callback.onSuccess(schedule.getScheduleDate(), schedule.getMySchedule(), schedule.getEmployees());
+            }
+        } else if (start) {
+            pending.update.start();
+        }
+    }
+
+    private SchedulePipeline.Listener listenerFor(PendingUpdate pending) {
+        return new SchedulePipeline.Listener() {
+            @Override
+            public void onComplete(Schedule schedule, ScheduleDiff diff, RunRecord.Outcome outcome) {
+                complete(pending, schedule, diff, outcome);
+            }
+
+            @Override
+            public void onInvalidPage(ScheduleParseException e) {
+                reject(pending, e);
+            }
+
+            @Override
+            public void onError(String error) {
+                fail(pending, error);
+            }
+
+            @Override
+            public void onPersistFailed(IOException e) {
+                pending.persistFailures.add(e); // Only the job thread touches this; complete() follows on it
+            }
+        };
+    }
+
+    private List<Waiter> finish(PendingUpdate pending, Schedule schedule) {
+        synchronized (inFlight) {
+            if (inFlight.get(pending.employeeId) == pending) {
+                inFlight.remove(pending.employeeId);
+            }
+            if (schedule != null) {
+                memos.put(pending.employeeId, new Memo(schedule, clock.elapsedMillis()));
+            }
+            // Nobody can join any more, so the notify flag is final too
+            return new ArrayList<>(pending.waiters);
+        }
+    }
+
+    private void complete(PendingUpdate pending, Schedule schedule, ScheduleDiff diff, RunRecord.Outcome outcome) {
+        List<Waiter> waiters = finish(pending, schedule);
+        try {
+            for (IOException e : pending.persistFailures) {
+                pending.hooks.onPersistFailed(pending.employeeId, e);
+            }
+            if (!diff.isEmpty()) {
+                long notifyStart = Metrics.now();
+                pending.hooks.onChanged(pending.employeeId, schedule, diff, pending.notify);
+                if (pending.notify) {
+                    Metrics.record(pending.run, Metrics.Stage.NOTIFY, notifyStart);
+                }
+            }
+        } finally {
+            Metrics.finishRun(pending.run, outcome);
+            for (Waiter waiter : waiters) {
+                if (waiter.onlyIfChanged && diff.isEmpty()) {
+                    waiter.callback.onNotModified();
+                } else {
+                    waiter.callback.onSuccess(schedule.getScheduleDate(), schedule.getMySchedule(),
+                            schedule.getEmployees());
+                }
+            }
+        }
+    }
+
+    private void fail(PendingUpdate pending, String error) {
+        Metrics.increment(Metrics.Counter.FETCH_ERROR);
+        Metrics.finishRun(pending.run, RunRecord.Outcome.ERROR);
+        for (Waiter waiter : finish(pending, null)) {
+            waiter.callback.onError(error);
+        }
+    }
+
+    /**
+     * Fails an update whose response wasn't a schedule page, keeping the reason for callers and metrics.
+     */
+    private void reject(PendingUpdate pending, ScheduleParseException e) {
+        List<Waiter> waiters = finish(pending, null);
+        try {
+            pending.hooks.onRejected(pending.employeeId, e);
+        } finally {
+            Metrics.increment(counterFor(e.getReason()));
+            Metrics.finishRun(pending.run, RunRecord.Outcome.INVALID_PAGE);
+            for (Waiter waiter : waiters) {
+                waiter.callback.onInvalidPage(e.getReason(), "Error: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Metrics.Counter counterFor(ScheduleParseException.Reason reason) {
+        switch (reason) {
+            case AUTH_EXPIRED:
+                return Metrics.Counter.PAGE_AUTH_EXPIRED;
+            case TRUNCATED:
+                return Metrics.Counter.PAGE_TRUNCATED;
+            default:
+                return Metrics.Counter.PAGE_LAYOUT_CHANGED;
+        }
+    }
+}
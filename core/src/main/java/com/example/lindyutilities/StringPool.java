@@ -0,0 +1,35 @@
+package com.example.lindyutilities;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-schedule dictionary for the columns that repeat from row to row (shift, job, foreman, crew,
+ * address, "N/A"), so a roster holds one copy of each distinct value instead of one per row.
+ * <p>
+ * Unlike {@link String#intern()} the pool is dropped together with the schedule that uses it.
+ * Not thread safe; each parse or snapshot load uses its own.
+ */
+public class StringPool {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * @return The pooled instance equal to the value, adding it if this is the first time it is seen.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = values.get(value);
+        if (pooled == null) {
+            values.put(value, value);
+            pooled = value;
+        }
+        return pooled;
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
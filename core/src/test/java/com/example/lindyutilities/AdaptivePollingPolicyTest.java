@@ -0,0 +1,144 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptivePollingPolicyTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class SimulatedClock implements AdaptivePollingPolicy.Clock {
+        long now;
+
+        SimulatedClock(long now) {
+            this.now = now;
+        }
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    @Test
+    public void sameDayRevisionIsPickedUp() {
+        SimulatedClock clock = new SimulatedClock(at(10, 16 * 60));
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+
+        policy.recordCheck(true); // Published at 4:00 PM
+        long revisedAt = at(10, 18 * 60);
+        boolean checkedAfterRevision = false;
+        while (clock.now < at(11, 0)) {
+            clock.now += policy.nextDelayMillis();
+            if (clock.now >= revisedAt && clock.now < at(11, 0)) {
+                checkedAfterRevision = true;
+                break;
+            }
+            policy.recordCheck(false);
+        }
+        assertTrue("A 6:00 PM revision is missed until tomorrow", checkedAfterRevision);
+    }
+
+    @Test
+    public void learnsPublishTimeFromFirstChangeOfEachDay() {
+        SimulatedClock clock = new SimulatedClock(0);
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+        for (int day = 0; day < 5; day++) {
+            clock.now = at(day, 15 * 60);
+            policy.recordCheck(true);
+            clock.now = at(day, 21 * 60); // Evening revision
+            policy.recordCheck(true);
+        }
+        assertEquals(15 * 60, policy.usualPublishMinute());
+    }
+
+    @Test
+    public void pollsDenselyAroundUsualPublishTime() {
+        SimulatedClock clock = new SimulatedClock(0);
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+        for (int day = 0; day < 3; day++) {
+            clock.now = at(day, 15 * 60);
+            policy.recordCheck(true);
+        }
+
+        clock.now = at(3, 13 * 60);
+        for (int i = 0; i < 10; i++) {
+            policy.recordCheck(false); // Backed off as far as it goes
+        }
+        // Early in the window: backs off, but wakes in time for the dense zone half an hour before 3:00 PM
+        assertEquals(90 * MINUTE, policy.nextDelayMillis());
+
+        clock.now = at(3, 15 * 60 + 10);
+        assertEquals(5 * MINUTE, policy.nextDelayMillis());
+    }
+
+    @Test
+    public void backsOffWhileNothingChanges() {
+        SimulatedClock clock = new SimulatedClock(at(0, 13 * 60));
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+
+        long previous = policy.nextDelayMillis();
+        assertEquals(10 * MINUTE, previous);
+        for (int i = 0; i < 8; i++) {
+            policy.recordCheck(false);
+            long delay = policy.nextDelayMillis();
+            assertTrue(delay >= previous);
+            assertTrue(delay <= 120 * MINUTE);
+            previous = delay;
+        }
+        assertEquals(120 * MINUTE, previous);
+    }
+
+    @Test
+    public void wakeupsAlwaysLandInWindow() {
+        SimulatedClock clock = new SimulatedClock(at(0, 0));
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+        while (clock.now < at(14, 0)) {
+            clock.now += policy.nextDelayMillis();
+            assertTrue(policy.isInWindow());
+            // Changes at 3:00 PM and a revision at 8:00 PM each day
+            int minute = (int) ((clock.now % DAY) / MINUTE);
+            policy.recordCheck(minute >= 15 * 60 && minute < 15 * 60 + 5 || minute >= 20 * 60 && minute < 20 * 60 + 5);
+        }
+    }
+
+    @Test
+    public void outsideWindowSleepsUntilItOpens() {
+        SimulatedClock clock = new SimulatedClock(at(2, 9 * 60));
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+        assertFalse(policy.isInWindow());
+        assertEquals(4 * 60 * MINUTE, policy.nextDelayMillis());
+    }
+
+    @Test
+    public void stateSurvivesSaveAndRestore() {
+        SimulatedClock clock = new SimulatedClock(at(4, 16 * 60));
+        AdaptivePollingPolicy policy = new AdaptivePollingPolicy(clock, UTC);
+        policy.recordCheck(true);
+        policy.recordCheck(false);
+
+        AdaptivePollingPolicy restored = new AdaptivePollingPolicy(clock, UTC);
+        restored.restoreState(policy.saveState());
+        assertEquals(policy.saveState(), restored.saveState());
+        assertEquals(policy.nextDelayMillis(), restored.nextDelayMillis());
+
+        AdaptivePollingPolicy garbage = new AdaptivePollingPolicy(clock, UTC);
+        garbage.restoreState("not;a;state");
+        assertEquals(-1, garbage.usualPublishMinute());
+    }
+
+    private static long at(int day, int minuteOfDay) {
+        return day * DAY + minuteOfDay * MINUTE;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class EmployeeRowTest {
+
+    private static final int ROWS = 500;
+
+    @Test
+    public void labelsAndUris() {
+        Employee employee = new Employee("Nguyen, Tom", "6:30 AM", "Job 7", "Foreman 2", "C1",
+                "Job Address: 107 Main St", "(555) 010-2000", "555-0112");
+        EmployeeRow row = new EmployeeRow(employee, 3);
+        assertEquals("Name: Nguyen, Tom", row.getNameLabel());
+        assertEquals("Crew: C1", row.getCrewLabel());
+        assertEquals("tel:(555) 010-2000", row.getDialUri());
+        assertEquals("smsto:(555) 010-2000", row.getMessageUri());
+
+        EmployeeRow noPhone = new EmployeeRow(new Employee("Kent, Bo", "Off", "Job 1", "Foreman 1", "C2",
+                "N/A", "N/A", "N/A"), 4);
+        assertNull(noPhone.getDialUri());
+        assertNull(noPhone.getMessageUri());
+    }
+
+    @Test
+    public void bindsEveryLabelAndTheExpandedState() {
+        List<Employee> roster = TestRosters.roster(20, 3);
+        EmployeeRowBinder binder = new EmployeeRowBinder();
+        binder.setRoster(roster);
+        List<EmployeeRow> rows = binder.rowsOf(roster);
+        binder.setExpandedId(rows.get(1).getId());
+
+        RecordingView view = new RecordingView();
+        binder.bind(view, rows.get(1));
+        assertSame(rows.get(1), view.row);
+        assertEquals(rows.get(1).getNameLabel(), view.labels[EmployeeRowBinder.Label.NAME.ordinal()]);
+        assertEquals(rows.get(1).getAddressLabel(), view.labels[EmployeeRowBinder.Label.ADDRESS.ordinal()]);
+        assertTrue(view.expanded);
+
+        binder.bind(view, rows.get(2));
+        assertFalse(view.expanded);
+        for (CharSequence label : view.labels) {
+            assertNotNull(label);
+        }
+    }
+
+    /**
+     * Scrolls a 500-row roster through the same bind path the adapter runs: row from the shown list, every
+     * label into the view, the expanded state. Needs a JVM that counts per-thread allocations (HotSpot
+     * does); skipped elsewhere.
+     */
+    @Test
+    public void scrollingBindsAllocateNothing() throws Exception {
+        List<Employee> roster = TestRosters.roster(ROWS, 21);
+        EmployeeRowBinder binder = new EmployeeRowBinder();
+        binder.setRoster(roster);
+        List<EmployeeRow> shown = binder.rowsOf(roster);
+        binder.setExpandedId(shown.get(ROWS / 2).getId());
+        RecordingView view = new RecordingView();
+
+        AllocationCounter counter = AllocationCounter.forCurrentThread();
+        assumeTrue("Per-thread allocation counting isn't available on this JVM", counter != null);
+        for (int i = 0; i < 200; i++) {
+            scroll(binder, shown, view); // Warm up, so the measured pass isn't interpreter or JIT noise
+        }
+        // Reading the counter can cost a few bytes of its own; measure that and take it off
+        long overhead = counter.bytes();
+        overhead = counter.bytes() - overhead;
+        long before = counter.bytes();
+        scroll(binder, shown, view);
+        long allocated = counter.bytes() - before - overhead;
+
+        assertEquals(ROWS, view.binds);
+        assertTrue("Binding " + ROWS + " rows allocated " + allocated + " bytes", allocated <= 64);
+    }
+
+    private static void scroll(EmployeeRowBinder binder, List<EmployeeRow> shown, RecordingView view) {
+        view.binds = 0;
+        for (int position = 0; position < shown.size(); position++) {
+            binder.bind(view, shown.get(position));
+        }
+    }
+
+    /**
+     * Keeps what it was given, like a view holder's text views would.
+     */
+    private static class RecordingView implements EmployeeRowBinder.RowView {
+        final CharSequence[] labels = new CharSequence[EmployeeRowBinder.Label.values().length];
+        EmployeeRow row;
+        boolean expanded;
+        int binds;
+
+        @Override
+        public void setRow(EmployeeRow row) {
+            this.row = row;
+            binds++;
+        }
+
+        @Override
+        public void setLabel(EmployeeRowBinder.Label label, CharSequence text) {
+            labels[label.ordinal()] = text;
+        }
+
+        @Override
+        public void setExpanded(boolean expanded) {
+            this.expanded = expanded;
+        }
+    }
+
+    /**
+     * The current thread's allocated bytes, through the HotSpot management extension when present.
+     */
+    private static final class AllocationCounter {
+        private final Object threads;
+        private final Method allocatedBytes;
+        private final long threadId = Thread.currentThread().getId();
+
+        private AllocationCounter(Object threads, Method allocatedBytes) {
+            this.threads = threads;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        static AllocationCounter forCurrentThread() {
+            Object threads = ManagementFactory.getThreadMXBean();
+            try {
+                Class<?> extension = Class.forName("com.sun.management.ThreadMXBean");
+                if (!extension.isInstance(threads)
+                        || !(Boolean) extension.getMethod("isThreadAllocatedMemoryEnabled").invoke(threads)) {
+                    return null;
+                }
+                return new AllocationCounter(threads, extension.getMethod("getThreadAllocatedBytes", long.class));
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        long bytes() throws ReflectiveOperationException {
+            return (Long) allocatedBytes.invoke(threads, threadId);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class EmployeeSearchIndexTest {
+
+    // Typed one keystroke at a time; each ends in a miss, so narrowing down to nothing is covered too
+    private static final String[] QUERIES = {"kowalski, ann 1x", "c12z", "foreman 3q", "(603) 5", "55501x", "job 4 ", "a"};
+
+    @Test
+    public void matchesLinearScanAt500Rows() {
+        checkEveryKeystroke(TestRosters.roster(500, 1));
+    }
+
+    @Test
+    public void matchesLinearScanAt5000Rows() {
+        checkEveryKeystroke(TestRosters.roster(5000, 2));
+    }
+
+    @Test
+    public void backspaceRescansInsteadOfNarrowing() {
+        EmployeeSearchIndex index = new EmployeeSearchIndex(TestRosters.roster(500, 3));
+        index.search("patel");
+        index.search("patelz");
+        List<Employee> employees = TestRosters.roster(500, 3);
+        assertEquals(linearScan(employees, "pate"), index.search("pate"));
+    }
+
+    private static void checkEveryKeystroke(List<Employee> employees) {
+        EmployeeSearchIndex index = new EmployeeSearchIndex(employees);
+        for (String query : QUERIES) {
+            for (int length = 0; length <= query.length(); length++) {
+                String typed = query.substring(0, length);
+                assertEquals("Query \"" + typed + "\"", linearScan(employees, typed), index.search(typed));
+            }
+        }
+    }
+
+    /**
+     * What the adapter's filter did before the index, widened to every searchable field.
+     */
+    private static List<Employee> linearScan(List<Employee> employees, String query) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<Employee> matches = new ArrayList<>();
+        for (Employee employee : employees) {
+            if (contains(employee.getName(), needle) || contains(employee.getCrew(), needle)
+                    || contains(employee.getJob(), needle) || contains(employee.getForeman(), needle)
+                    || contains(employee.getEmployeePhone(), needle) || contains(digits(employee.getEmployeePhone()), needle)
+                    || contains(employee.getForemanPhone(), needle) || contains(digits(employee.getForemanPhone()), needle)) {
+                matches.add(employee);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean contains(String field, String needle) {
+        return field != null && !field.equals("N/A") && field.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static String digits(String phone) {
+        return phone.replaceAll("[^0-9]", "");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class FacetIndexTest {
+
+    @Test
+    public void matchesSetFilterAt500Rows() {
+        checkRandomSelections(TestRosters.roster(500, 5), 5);
+    }
+
+    @Test
+    public void matchesSetFilterAt5000Rows() {
+        checkRandomSelections(TestRosters.roster(5000, 6), 6);
+    }
+
+    @Test
+    public void emptySelectionsLeaveFacetUnfiltered() {
+        List<Employee> employees = TestRosters.roster(500, 7);
+        FacetIndex index = new FacetIndex(employees);
+        List<String> none = Collections.emptyList();
+
+        assertEquals(employees, index.select(none, none));
+        assertEquals(filter(employees, Collections.singleton("Job 3"), none),
+                index.select(Collections.singleton("Job 3"), none));
+        assertEquals(Collections.emptyList(), index.select(Collections.singleton("No such job"), none));
+    }
+
+    private static void checkRandomSelections(List<Employee> employees, long seed) {
+        FacetIndex index = new FacetIndex(employees);
+        List<String> jobs = new ArrayList<>(index.jobCounts().keySet());
+        List<String> crews = new ArrayList<>(index.crewCounts(Collections.<String>emptyList()).keySet());
+        assertEquals(jobCounts(employees), index.jobCounts());
+
+        Random random = new Random(seed);
+        for (int i = 0; i < 200; i++) {
+            Set<String> selectedJobs = pick(jobs, random);
+            Set<String> selectedCrews = pick(crews, random);
+            assertEquals(filter(employees, selectedJobs, selectedCrews), index.select(selectedJobs, selectedCrews));
+            assertEquals(crewCounts(employees, selectedJobs), index.crewCounts(selectedJobs));
+        }
+    }
+
+    private static Set<String> pick(List<String> values, Random random) {
+        Set<String> picked = new HashSet<>();
+        int count = random.nextInt(4); // Zero means no filter on that facet
+        for (int i = 0; i < count; i++) {
+            picked.add(values.get(random.nextInt(values.size())));
+        }
+        return picked;
+    }
+
+    /**
+     * The dialogs' old filter: {@code contains} checks on the selected values.
+     */
+    private static List<Employee> filter(List<Employee> employees, Collection<String> jobs, Collection<String> crews) {
+        List<Employee> selected = new ArrayList<>();
+        for (Employee employee : employees) {
+            if ((jobs.isEmpty() || jobs.contains(employee.getJob()))
+                    && (crews.isEmpty() || crews.contains(employee.getCrew()))) {
+                selected.add(employee);
+            }
+        }
+        return selected;
+    }
+
+    private static Map<String, Integer> jobCounts(List<Employee> employees) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Employee employee : employees) {
+            counts.merge(employee.getJob(), 1, Integer::sum);
+        }
+        return new LinkedHashMap<>(counts);
+    }
+
+    private static Map<String, Integer> crewCounts(List<Employee> employees, Collection<String> jobs) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Employee employee : filter(employees, jobs, Arrays.<String>asList())) {
+            counts.merge(employee.getCrew(), 1, Integer::sum);
+        }
+        return new LinkedHashMap<>(counts);
+    }
+}
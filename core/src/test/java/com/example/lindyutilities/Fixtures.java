@@ -0,0 +1,35 @@
+package com.example.lindyutilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Saved schedule pages under {@code src/test/resources/fixtures}.
+ */
+final class Fixtures {
+
+    static final String[] PAGES = {"schedule-small.html", "schedule-60.html", "schedule-60-quirks.html"};
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) throws IOException {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    static String html(String name) throws IOException {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+}
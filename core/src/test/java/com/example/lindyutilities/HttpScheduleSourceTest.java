@@ -0,0 +1,152 @@
+package com.example.lindyutilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import okio.ByteString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Conditional fetches through the pipeline against a local server.
+ */
+public class HttpScheduleSourceTest {
+
+    private static final String LAST_MODIFIED = "Wed, 11 Jun 2025 18:02:00 GMT";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private final OkHttpClient client = new OkHttpClient();
+    private final ParseExecutor executor = new ParseExecutor(2, "test-parse");
+    private SchedulePipeline pipeline;
+    private byte[] page;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        page = Fixtures.bytes("schedule-small.html");
+        pipeline = newPipeline(new MemoryValidatorStore());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private SchedulePipeline newPipeline(SchedulePipeline.ValidatorStore validators) {
+        return new SchedulePipeline("42", new HttpScheduleSource(client, server.url("/schedule").toString()),
+                new ScheduleSnapshotStore(folder.getRoot(), "42"), null, validators, executor);
+    }
+
+    private MockResponse pageResponse() {
+        return new MockResponse()
+                .setHeader("Content-Type", "text/html; charset=utf-8")
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Last-Modified", LAST_MODIFIED)
+                .setBody(new Buffer().write(page));
+    }
+
+    @Test
+    public void sendsStoredValidatorsAndShortCircuitsOn304() throws Exception {
+        server.enqueue(pageResponse());
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        PipelineResult first = PipelineResult.run(pipeline);
+        assertEquals(RunRecord.Outcome.CHANGED, first.outcome);
+        RecordedRequest unconditional = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("schedulingEmpID=42", unconditional.getHeader("Cookie"));
+        assertNull(unconditional.getHeader("If-None-Match"));
+
+        PipelineResult second = PipelineResult.run(pipeline);
+        RecordedRequest conditional = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+        assertEquals(LAST_MODIFIED, conditional.getHeader("If-Modified-Since"));
+        assertEquals(RunRecord.Outcome.NOT_MODIFIED, second.outcome);
+        assertTrue(second.diff.isEmpty());
+        assertEquals(first.schedule.getEmployees(), second.schedule.getEmployees()); // From the snapshot
+    }
+
+    @Test
+    public void unchangedBodyWithoutValidatorsMatchesFingerprint() throws Exception {
+        server.enqueue(new MockResponse().setBody(new Buffer().write(page)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(page)));
+
+        assertEquals(RunRecord.Outcome.CHANGED, PipelineResult.run(pipeline).outcome);
+        PipelineResult second = PipelineResult.run(pipeline);
+
+        assertNull(server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"));
+        assertNull(server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"));
+        assertEquals(RunRecord.Outcome.NOT_MODIFIED, second.outcome);
+    }
+
+    @Test
+    public void fingerprintMatchesOnesAlreadyStored() throws Exception {
+        MemoryValidatorStore validators = new MemoryValidatorStore();
+        server.enqueue(pageResponse());
+
+        PipelineResult.run(newPipeline(validators));
+
+        // Hashed in place now, but the same MD5 hex the fingerprints saved by earlier versions hold
+        assertEquals(ByteString.of(page, 0, page.length).md5().hex(), validators.getFingerprint());
+    }
+
+    @Test
+    public void chunkedBodyIsReadWhole() throws Exception {
+        server.enqueue(new MockResponse().setChunkedBody(new Buffer().write(page), 512));
+
+        PipelineResult result = PipelineResult.run(pipeline);
+
+        assertEquals(RunRecord.Outcome.CHANGED, result.outcome);
+        assertEquals(3, result.schedule.getEmployees().size());
+    }
+
+    @Test
+    public void bodyCutOffMidReadIsAFailedFetch() throws Exception {
+        server.enqueue(pageResponse().setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY));
+
+        PipelineResult result = PipelineResult.run(pipeline);
+
+        assertNull(result.outcome);
+        assertNotNull(result.error);
+    }
+
+    @Test
+    public void refetchesUnconditionallyWhenSnapshotIsGone() throws Exception {
+        MemoryValidatorStore validators = new MemoryValidatorStore();
+        validators.save("\"v1\"", LAST_MODIFIED, null); // Validators outlived the snapshot
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(pageResponse());
+
+        PipelineResult result = PipelineResult.run(newPipeline(validators));
+
+        assertEquals("\"v1\"", server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"));
+        assertNull(server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match"));
+        assertEquals(RunRecord.Outcome.CHANGED, result.outcome);
+        assertEquals(3, result.schedule.getEmployees().size());
+    }
+
+    @Test
+    public void serverErrorIsReported() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        PipelineResult result = PipelineResult.run(pipeline);
+
+        assertEquals("Error: HTTP 503", result.error);
+    }
+}
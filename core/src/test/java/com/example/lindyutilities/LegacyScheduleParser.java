@@ -0,0 +1,88 @@
+package com.example.lindyutilities;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The original two-pass DOM parse ({@code extractScheduleDate} + {@code parseEmployees}), kept as the
+ * reference the streaming parser is checked against.
+ */
+final class LegacyScheduleParser {
+
+    private LegacyScheduleParser() {
+    }
+
+    static Schedule parse(String html) {
+        Document doc = Jsoup.parse(html);
+        String scheduleDate = "Not Found";
+        Element header = doc.selectFirst("h3 span.dailySchedule");
+        if (header != null) {
+            scheduleDate = header.parent().text().replace("Daily Schedule for ", "").trim();
+        }
+
+        Employee[] mySchedule = new Employee[1];
+        List<Employee> employees = parseEmployees(Jsoup.parse(html).select("table.dailySchedule").get(1), mySchedule);
+        return new Schedule(scheduleDate, mySchedule[0], employees);
+    }
+
+    private static List<Employee> parseEmployees(Element table, Employee[] mySchedule) {
+        List<Employee> employees = new ArrayList<>();
+        Elements rows = table.select("tr");
+        for (int i = 0; i < rows.size(); i++) {
+            Element row = rows.get(i);
+            boolean current = row.hasClass("current");
+            if (!current && !row.hasClass("empRow")) {
+                continue;
+            }
+            Employee employee = parseEmployeeDetails(row);
+            String jobAddress = "N/A";
+            if (i + 1 < rows.size() && rows.get(i + 1).select(".dailySchedule.pnm-comments").first() != null) {
+                jobAddress = rows.get(i + 1).select(".dailySchedule.pnm-comments").text();
+                if (current) {
+                    jobAddress = jobAddress.replace("Job Address: ", "").trim();
+                }
+                i++;
+            }
+            if (current) {
+                mySchedule[0] = employee.withJobAddress(jobAddress);
+            } else {
+                employees.add(employee.withJobAddress(jobAddress));
+            }
+        }
+        if (mySchedule[0] == null) {
+            mySchedule[0] = new Employee("You", "N/A", "Not scheduled today", "N/A", "N/A", "N/A", "N/A", "N/A");
+        }
+        return employees;
+    }
+
+    private static Employee parseEmployeeDetails(Element row) {
+        Elements columns = row.select("td");
+        Element employeeColumn = columns.select(".dailySchedule.employee").first();
+        String name = employeeColumn != null ? employeeColumn.ownText() : "N/A";
+        String employeePhone = "N/A";
+        if (employeeColumn != null) {
+            Element phone = employeeColumn.select("span.empComments").first();
+            if (phone != null) {
+                employeePhone = phone.text();
+            }
+        }
+        String shift = columns.select(".dailySchedule.shift").text();
+        String job = columns.select(".dailySchedule.job").html().split("<div")[0].trim();
+        Element foremanColumn = columns.select(".dailySchedule.foreman").first();
+        String foreman = foremanColumn != null ? foremanColumn.ownText() : "N/A";
+        String foremanPhone = "N/A";
+        if (foremanColumn != null) {
+            Element phone = foremanColumn.select("span.noWrap.empComments").first();
+            if (phone != null) {
+                foremanPhone = phone.text();
+            }
+        }
+        String crew = columns.select(".dailySchedule.crew").text();
+        return new Employee(name, shift, job, foreman, crew, "N/A", employeePhone, foremanPhone);
+    }
+}
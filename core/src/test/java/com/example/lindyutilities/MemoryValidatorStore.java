@@ -0,0 +1,32 @@
+package com.example.lindyutilities;
+
+/**
+ * Validators kept in memory, in place of the app's preferences.
+ */
+final class MemoryValidatorStore implements SchedulePipeline.ValidatorStore {
+    private String etag;
+    private String lastModified;
+    private String fingerprint;
+
+    @Override
+    public String getETag() {
+        return etag;
+    }
+
+    @Override
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public void save(String etag, String lastModified, String fingerprint) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.fingerprint = fingerprint;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.lindyutilities;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParseExecutorTest {
+
+    // Released after each test, so blocked jobs don't hold their (daemon) threads forever
+    private final List<CountDownLatch> gates = new ArrayList<>();
+    private final List<String> order = new CopyOnWriteArrayList<>();
+
+    @After
+    public void releaseGates() {
+        for (CountDownLatch gate : gates) {
+            gate.countDown();
+        }
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void foregroundStartsWhileBackgroundHoldsAThread() throws Exception {
+        ParseExecutor executor = new ParseExecutor(2, "fg-test");
+        CountDownLatch busy = block(executor, ParseExecutor.Lane.BACKGROUND);
+        executor.submit(ParseExecutor.Lane.BACKGROUND, null, record("queued background"), null);
+
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.submit(ParseExecutor.Lane.FOREGROUND, null, ran::countDown, null);
+
+        await(ran);
+        assertEquals("The running background job is still parsing", 1, busy.getCount());
+        assertEquals("Background may not take the last thread", 1, executor.queued());
+        assertTrue(order.isEmpty());
+    }
+
+    @Test
+    public void foregroundRunsAheadOfQueuedBackground() throws Exception {
+        ParseExecutor executor = new ParseExecutor(3, "order-test");
+        block(executor, ParseExecutor.Lane.BACKGROUND);
+        CountDownLatch first = block(executor, ParseExecutor.Lane.FOREGROUND);
+        block(executor, ParseExecutor.Lane.FOREGROUND);
+
+        CountDownLatch done = new CountDownLatch(2);
+        executor.submit(ParseExecutor.Lane.BACKGROUND, null, record("background", done), null);
+        executor.submit(ParseExecutor.Lane.FOREGROUND, null, record("foreground", done), null);
+        assertEquals(2, executor.queued());
+
+        // One thread comes free, and a background job would be allowed on it; the foreground job still goes first
+        first.countDown();
+        await(done);
+        assertEquals(Arrays.asList("foreground", "background"), order);
+    }
+
+    @Test
+    public void promotedJobRunsAheadOfQueuedBackground() throws Exception {
+        ParseExecutor executor = new ParseExecutor(2, "promote-test");
+        CountDownLatch first = block(executor, ParseExecutor.Lane.BACKGROUND);
+        block(executor, ParseExecutor.Lane.FOREGROUND);
+
+        CountDownLatch done = new CountDownLatch(2);
+        executor.submit(ParseExecutor.Lane.BACKGROUND, null, record("older", done), null);
+        executor.submit(ParseExecutor.Lane.BACKGROUND, null, record("promoted", done), null).promote();
+
+        first.countDown();
+        await(done);
+        assertEquals(Arrays.asList("promoted", "older"), order);
+    }
+
+    @Test
+    public void sameKeySupersedesQueuedJob() throws Exception {
+        ParseExecutor executor = new ParseExecutor(2, "supersede-test");
+        CountDownLatch first = block(executor, ParseExecutor.Lane.BACKGROUND);
+        block(executor, ParseExecutor.Lane.FOREGROUND);
+
+        AtomicInteger cancelled = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        ParseExecutor.Task stale = executor.submit(ParseExecutor.Lane.BACKGROUND, "42",
+                record("stale"), cancelled::incrementAndGet);
+        ParseExecutor.Task fresh = executor.submit(ParseExecutor.Lane.BACKGROUND, "42",
+                record("fresh", done), cancelled::incrementAndGet);
+
+        assertTrue(stale.isCancelled());
+        assertFalse(fresh.isCancelled());
+        assertEquals(1, cancelled.get());
+        assertEquals(1, executor.queued());
+
+        first.countDown();
+        await(done);
+        assertEquals(Arrays.asList("fresh"), order);
+    }
+
+    @Test
+    public void cancelOnlyStopsJobsThatHaveNotStarted() throws Exception {
+        ParseExecutor executor = new ParseExecutor(2, "cancel-test");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = gate();
+        ParseExecutor.Task running = executor.submit(ParseExecutor.Lane.FOREGROUND, null, () -> {
+            started.countDown();
+            awaitQuietly(gate);
+        }, null);
+        await(started);
+        block(executor, ParseExecutor.Lane.FOREGROUND);
+
+        AtomicInteger cancelled = new AtomicInteger();
+        ParseExecutor.Task queued = executor.submit(ParseExecutor.Lane.BACKGROUND, null, record("queued"),
+                cancelled::incrementAndGet);
+        assertTrue(queued.cancel());
+        assertFalse("Already cancelled", queued.cancel());
+        assertFalse("Running jobs are never interrupted", running.cancel());
+        assertEquals(1, cancelled.get());
+        assertEquals(0, executor.queued());
+    }
+
+    @Test
+    public void failingJobIsCountedAndThreadKeepsWorking() throws Exception {
+        Metrics.setEnabled(true);
+        Metrics.reset();
+        ParseExecutor executor = new ParseExecutor(2, "failure-test");
+        block(executor, ParseExecutor.Lane.FOREGROUND); // Leaves one thread, so both jobs below share it
+
+        CountDownLatch done = new CountDownLatch(1);
+        executor.submit(ParseExecutor.Lane.FOREGROUND, null, () -> {
+            throw new IllegalStateException("Bad row");
+        }, null);
+        executor.submit(ParseExecutor.Lane.FOREGROUND, null, record("after", done), null);
+
+        await(done);
+        assertEquals(Arrays.asList("after"), order);
+        assertEquals(1, Metrics.count(Metrics.Counter.PARSE_JOB_FAILED));
+    }
+
+    /**
+     * Submits a job that holds its thread until the returned latch is released, and waits for it to start.
+     */
+    private CountDownLatch block(ParseExecutor executor, ParseExecutor.Lane lane) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = gate();
+        executor.submit(lane, null, () -> {
+            started.countDown();
+            awaitQuietly(gate);
+        }, null);
+        await(started);
+        return gate;
+    }
+
+    private CountDownLatch gate() {
+        CountDownLatch gate = new CountDownLatch(1);
+        gates.add(gate);
+        return gate;
+    }
+
+    private Runnable record(String name) {
+        return () -> order.add(name);
+    }
+
+    private Runnable record(String name, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new AssertionError("Timed out");
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
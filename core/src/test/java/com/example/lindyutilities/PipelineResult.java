@@ -0,0 +1,53 @@
+package com.example.lindyutilities;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one pipeline update and waits for how it ended.
+ */
+final class PipelineResult implements SchedulePipeline.Listener {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    Schedule schedule;
+    ScheduleDiff diff;
+    RunRecord.Outcome outcome;
+    ScheduleParseException invalidPage;
+    String error;
+    IOException persistFailure;
+
+    static PipelineResult run(SchedulePipeline pipeline) throws InterruptedException {
+        PipelineResult result = new PipelineResult();
+        pipeline.newUpdate(ParseExecutor.Lane.FOREGROUND, null, result).start();
+        if (!result.done.await(10, TimeUnit.SECONDS)) {
+            throw new AssertionError("Pipeline update never finished");
+        }
+        return result;
+    }
+
+    @Override
+    public void onComplete(Schedule schedule, ScheduleDiff diff, RunRecord.Outcome outcome) {
+        this.schedule = schedule;
+        this.diff = diff;
+        this.outcome = outcome;
+        done.countDown();
+    }
+
+    @Override
+    public void onInvalidPage(ScheduleParseException e) {
+        invalidPage = e;
+        done.countDown();
+    }
+
+    @Override
+    public void onError(String error) {
+        this.error = error;
+        done.countDown();
+    }
+
+    @Override
+    public void onPersistFailed(IOException e) {
+        persistFailure = e;
+    }
+}
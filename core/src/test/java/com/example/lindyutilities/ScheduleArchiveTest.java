@@ -0,0 +1,116 @@
+package com.example.lindyutilities;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ScheduleArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsTheDateFormatsThePageUses() {
+        long day = ScheduleArchive.epochDay(2025, 3, 4);
+        String[] dates = {
+                "Tuesday, March 4, 2025", "March 4, 2025", "Tue, Mar 4, 2025", "Tuesday March 4, 2025",
+                "Tuesday, March 4 2025", "Tuesday, 4 March 2025", "4 March 2025", "Mar 4 2025", "3/4/2025",
+                "Tuesday, 3/4/2025", "2025-03-04", "  Tuesday,\u00A0March  4, 2025 "
+        };
+        for (String date : dates) {
+            assertEquals(date, day, ScheduleArchive.epochDayOf(date));
+        }
+    }
+
+    @Test
+    public void unreadableDates() {
+        assertEquals(-1, ScheduleArchive.epochDayOf("Not Found"));
+        assertEquals(-1, ScheduleArchive.epochDayOf("March 32, 2025"));
+        assertEquals(-1, ScheduleArchive.epochDayOf(null));
+    }
+
+    @Test
+    public void appendKeepsNewestRevisionPerDay() throws IOException {
+        ScheduleArchive archive = new ScheduleArchive(new File(folder.getRoot(), "archive.bin"),
+                ScheduleArchive.DEFAULT_MAX_BYTES);
+        assertTrue(archive.append(schedule("Tuesday, March 4, 2025", 1)));
+        assertFalse("Same schedule again", archive.append(schedule("Tuesday, March 4, 2025", 1)));
+        assertTrue(archive.append(schedule("Tue, Mar 4, 2025", 2)));
+
+        long day = ScheduleArchive.epochDay(2025, 3, 4);
+        assertEquals(1, archive.days().size());
+        assertEquals(TestRosters.roster(20, 2).get(0).getName(), archive.get(day).getEmployees().get(0).getName());
+    }
+
+    @Test
+    public void appendWithUnreadableDateFails() {
+        ScheduleArchive archive = new ScheduleArchive(new File(folder.getRoot(), "archive.bin"),
+                ScheduleArchive.DEFAULT_MAX_BYTES);
+        try {
+            archive.append(schedule("Not Found", 1));
+            fail("Expected the unreadable date to be reported");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Not Found"));
+        }
+    }
+
+    @Test
+    public void compactionKeepsNewestRevisionOfNewestDays() throws IOException {
+        File file = new File(folder.getRoot(), "archive.bin");
+        long maxBytes = 24 * 1024;
+        ScheduleArchive archive = new ScheduleArchive(file, maxBytes);
+        ScheduleArchive reader = new ScheduleArchive(file, maxBytes); // Another instance, e.g. the worker's
+        archive.append(schedule("March 1, 2025", 1));
+        assertEquals(1, reader.days().size()); // Its index now reflects the uncompacted file
+
+        int compactions = 0;
+        long size = archive.sizeBytes();
+        for (int append = 1; append <= 60; append++) {
+            // Every day is revised once, so compaction has superseded records to drop as well
+            int day = (append + 1) / 2;
+            archive.append(schedule("March " + day + ", 2025", append));
+            if (archive.sizeBytes() < size) {
+                compactions++;
+                assertTrue("Compacted to " + archive.sizeBytes(), archive.sizeBytes() <= maxBytes * 3 / 4);
+            }
+            size = archive.sizeBytes();
+            assertTrue(size <= maxBytes);
+        }
+        assertTrue(compactions > 0);
+
+        // The newest days survive, each as its latest revision; the oldest days are gone
+        List<Long> days = archive.days();
+        long last = ScheduleArchive.epochDay(2025, 3, 30);
+        assertTrue(days.size() > 1 && days.size() < 30);
+        for (int i = 0; i < days.size(); i++) {
+            assertEquals(last - days.size() + 1 + i, (long) days.get(i));
+        }
+        for (long day : days) {
+            int dayOfMonth = (int) (day - ScheduleArchive.epochDay(2025, 3, 1)) + 1;
+            assertEquals(TestRosters.roster(20, dayOfMonth * 2L).get(0).getName(),
+                    archive.get(day).getEmployees().get(0).getName());
+        }
+        assertNull(archive.get(ScheduleArchive.epochDay(2025, 3, 1)));
+
+        // The other instance notices the rewrite and re-reads its index
+        assertEquals(days, reader.days());
+        assertEquals(archive.get(last).getEmployees().get(0).getName(),
+                reader.get(last).getEmployees().get(0).getName());
+        assertEquals(days.size(), reader.range(days.get(0), last).size());
+    }
+
+    private static Schedule schedule(String date, long seed) {
+        List<Employee> employees = TestRosters.roster(20, seed);
+        return new Schedule(date, employees.get(0), employees);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ScheduleDiffTest {
+
+    private static final String DATE = "Tuesday, March 4, 2025";
+
+    private static final Employee ME = employee("Nguyen, Tom", "6:30 AM", "Job 1");
+    private static final Employee ANN = employee("Kowalski, Ann", "6:00 AM", "Job 1");
+    private static final Employee RAJ = employee("Patel, Raj", "7:00 AM", "Job 2");
+    private static final Employee EVE = employee("Kent, Eve", "6:00 AM", "Job 3");
+
+    @Test
+    public void sameScheduleIsEmpty() {
+        Schedule schedule = schedule(DATE, ME, ANN, RAJ);
+        ScheduleDiff diff = ScheduleDiff.compute(schedule, schedule(DATE, ME, ANN, RAJ));
+        assertTrue(diff.isEmpty());
+        assertNull(diff.getMyChange());
+    }
+
+    @Test
+    public void noPreviousScheduleAddsEveryone() {
+        ScheduleDiff diff = ScheduleDiff.compute(null, schedule(DATE, ME, ANN, RAJ));
+        assertTrue(diff.isDateChanged());
+        assertEquals(Arrays.asList(ANN, RAJ), diff.getAdded());
+        assertTrue(diff.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void addedAndRemoved() {
+        ScheduleDiff diff = ScheduleDiff.compute(schedule(DATE, ME, ANN, RAJ), schedule(DATE, ME, RAJ, EVE));
+        assertEquals(Arrays.asList(EVE), diff.getAdded());
+        assertEquals(Arrays.asList(ANN), diff.getRemoved());
+        assertTrue(diff.getChanged().isEmpty());
+        assertEquals("2 crew changes (1 added, 1 removed, 0 updated).", diff.summary(DATE));
+    }
+
+    @Test
+    public void removedComeOutInRosterOrder() {
+        List<Employee> before = TestRosters.roster(200, 4);
+        ScheduleDiff diff = ScheduleDiff.compute(new Schedule(DATE, ME, before),
+                new Schedule(DATE, ME, new ArrayList<Employee>()));
+        assertEquals(before, diff.getRemoved());
+    }
+
+    @Test
+    public void fieldChanges() {
+        Employee moved = new Employee(RAJ.getName(), "6:00 AM", "Job 9", "Foreman 2", "C2",
+                "Job Address: 9 Elm St", RAJ.getEmployeePhone(), "555-0199");
+        ScheduleDiff diff = ScheduleDiff.compute(schedule(DATE, ME, ANN, RAJ), schedule(DATE, ME, ANN, moved));
+
+        assertEquals(1, diff.getChanged().size());
+        ScheduleDiff.Change change = diff.getChanged().get(0);
+        assertSame(RAJ, change.getBefore());
+        assertSame(moved, change.getAfter());
+        assertEquals(EnumSet.of(ScheduleDiff.Field.SHIFT, ScheduleDiff.Field.JOB, ScheduleDiff.Field.FOREMAN,
+                ScheduleDiff.Field.CREW, ScheduleDiff.Field.ADDRESS, ScheduleDiff.Field.FOREMAN_PHONE),
+                change.getFields());
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void ownRowChange() {
+        Employee later = employee(ME.getName(), "7:00 AM", ME.getJob());
+        ScheduleDiff diff = ScheduleDiff.compute(schedule(DATE, ME, ANN), schedule(DATE, later, ANN));
+        assertFalse(diff.isEmpty());
+        assertEquals(EnumSet.of(ScheduleDiff.Field.SHIFT), diff.getMyChange().getFields());
+        assertEquals("Your shift changed.", diff.summary(DATE));
+    }
+
+    @Test
+    public void newDateSummarizesAsUpdate() {
+        ScheduleDiff diff = ScheduleDiff.compute(schedule(DATE, ME, ANN), schedule("Wednesday, March 5, 2025", ME, ANN));
+        assertTrue(diff.isDateChanged());
+        assertEquals("Your schedule has been updated for Wednesday, March 5, 2025",
+                diff.summary("Wednesday, March 5, 2025"));
+    }
+
+    @Test
+    public void duplicateNamesAreMatchedByOccurrence() {
+        Employee first = employee("Kent, Bo", "6:00 AM", "Job 1");
+        Employee second = employee("Kent, Bo", "7:00 AM", "Job 2");
+        Employee secondMoved = employee("Kent, Bo", "7:00 AM", "Job 5");
+
+        ScheduleDiff same = ScheduleDiff.compute(schedule(DATE, ME, first, second), schedule(DATE, ME, first, second));
+        assertTrue(same.isEmpty());
+
+        ScheduleDiff diff = ScheduleDiff.compute(schedule(DATE, ME, first, second),
+                schedule(DATE, ME, first, secondMoved));
+        assertEquals(1, diff.getChanged().size());
+        assertSame(second, diff.getChanged().get(0).getBefore());
+        assertEquals(EnumSet.of(ScheduleDiff.Field.JOB), diff.getChanged().get(0).getFields());
+
+        // Losing one of the two leaves the second occurrence over
+        ScheduleDiff dropped = ScheduleDiff.compute(schedule(DATE, ME, first, second), schedule(DATE, ME, first));
+        assertEquals(Arrays.asList(second), dropped.getRemoved());
+    }
+
+    private static Schedule schedule(String date, Employee me, Employee... employees) {
+        return new Schedule(date, me, Arrays.asList(employees));
+    }
+
+    private static Employee employee(String name, String shift, String job) {
+        return new Employee(name, shift, job, "Foreman 1", "C1", "Job Address: 1 Main St", "(555) 010-2000",
+                "555-0111");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parses generated pages with every quirk and a seeded run of random ones. Failures name the seed, so a
+ * page can be rebuilt with {@link SchedulePages} to debug it.
+ */
+public class ScheduleParserFuzzTest {
+
+    private static final int ROWS = 300;
+    private static final long SEED = 7;
+    private static final int RANDOM_PAGES = 25;
+    private static final String DATE = "Tuesday, March 4, 2025";
+
+    @Test
+    public void markupQuirksParseToTheSameRoster() throws Exception {
+        Schedule plain = parse(SchedulePages.page(ROWS, SEED));
+        for (SchedulePages.Quirk quirk : new SchedulePages.Quirk[]{
+                SchedulePages.Quirk.ODD_WHITESPACE, SchedulePages.Quirk.MALFORMED_NESTING}) {
+            Schedule quirky = parse(SchedulePages.page(ROWS, SEED, EnumSet.of(quirk)));
+            assertEquals(quirk + " own row", plain.getMySchedule().getName(), quirky.getMySchedule().getName());
+            assertEquals(quirk + " rows", plain.getEmployees().size(), quirky.getEmployees().size());
+            for (int i = 0; i < plain.getEmployees().size(); i++) {
+                Employee expected = plain.getEmployees().get(i);
+                Employee actual = quirky.getEmployees().get(i);
+                assertEquals(quirk + " row " + i, expected.getName(), actual.getName());
+                assertEquals(quirk + " row " + i, expected.getShift(), actual.getShift());
+                assertEquals(quirk + " row " + i, expected.getJob(), textOf(actual.getJob()));
+                assertEquals(quirk + " row " + i, expected.getCrew(), actual.getCrew());
+                assertEquals(quirk + " row " + i, expected.getEmployeePhone(), actual.getEmployeePhone());
+            }
+        }
+    }
+
+    @Test
+    public void missingAddresses() throws Exception {
+        Schedule schedule = parse(SchedulePages.page(ROWS, SEED, EnumSet.of(SchedulePages.Quirk.MISSING_ADDRESSES)));
+        assertEquals(ROWS - 1, schedule.getEmployees().size());
+        for (Employee employee : schedule.getEmployees()) {
+            assertEquals("N/A", employee.getJobAddress());
+        }
+    }
+
+    @Test
+    public void noCurrentRow() throws Exception {
+        Schedule schedule = parse(SchedulePages.page(ROWS, SEED, EnumSet.of(SchedulePages.Quirk.NO_CURRENT_ROW)));
+        assertEquals(ROWS, schedule.getEmployees().size());
+        assertEquals("You", schedule.getMySchedule().getName());
+    }
+
+    @Test
+    public void unicodeNamesSurviveIntact() throws Exception {
+        String html = SchedulePages.page(ROWS, SEED, EnumSet.of(SchedulePages.Quirk.UNICODE_NAMES));
+        Schedule schedule = parse(html);
+        assertEquals(ROWS - 1, schedule.getEmployees().size());
+        boolean outsideBmp = false;
+        for (Employee employee : schedule.getEmployees()) {
+            assertTrue(employee.getName(), html.contains(employee.getName()));
+            outsideBmp |= employee.getName().codePointCount(0, employee.getName().length())
+                    < employee.getName().length();
+        }
+        assertTrue("Seed should produce at least one name outside the BMP", outsideBmp);
+    }
+
+    @Test
+    public void randomPagesParse() throws Exception {
+        for (long seed = 1; seed <= RANDOM_PAGES; seed++) {
+            String html = SchedulePages.randomPage(seed);
+            int rows = count(html, "<tr class=\"");
+            boolean hasCurrent = html.contains("current");
+            Schedule schedule;
+            try {
+                schedule = parse(html);
+            } catch (Exception e) {
+                throw new AssertionError("Seed " + seed + " failed to parse", e);
+            }
+            assertEquals("Seed " + seed, DATE, schedule.getScheduleDate());
+            assertEquals("Seed " + seed, hasCurrent ? rows - 1 : rows, schedule.getEmployees().size());
+            assertRowsFilled(seed, schedule.getEmployees());
+        }
+    }
+
+    private static void assertRowsFilled(long seed, List<Employee> employees) {
+        for (Employee employee : employees) {
+            assertFalse("Seed " + seed, employee.getName().trim().isEmpty());
+            assertTrue("Seed " + seed + ": " + employee.getJob(), textOf(employee.getJob()).startsWith("Job "));
+            assertTrue("Seed " + seed + ": " + employee.getCrew(), employee.getCrew().startsWith("C"));
+        }
+    }
+
+    private static Schedule parse(String html) throws Exception {
+        return new ScheduleParser().parse(html.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The job cell keeps its markup (see {@link ScheduleRowReader}), which a broken row repairs into tags
+     * around the name; compare the text.
+     */
+    private static String textOf(String job) {
+        return job.replaceAll("<[^>]*>", "");
+    }
+
+    private static int count(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+}
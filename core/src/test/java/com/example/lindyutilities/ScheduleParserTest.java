@@ -0,0 +1,119 @@
+package com.example.lindyutilities;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ScheduleParserTest {
+
+    @Test
+    public void matchesLegacyParseOnFixtures() throws Exception {
+        for (String name : Fixtures.PAGES) {
+            Schedule expected = LegacyScheduleParser.parse(Fixtures.html(name));
+            Schedule actual = new ScheduleParser().parse(Fixtures.bytes(name), StandardCharsets.UTF_8);
+
+            assertEquals(name, expected.getScheduleDate(), actual.getScheduleDate());
+            assertEquals(name, expected.getMySchedule(), actual.getMySchedule());
+            assertEquals(name, expected.getEmployees(), actual.getEmployees());
+        }
+    }
+
+    @Test
+    public void readerAndBytesAgree() throws Exception {
+        for (String name : Fixtures.PAGES) {
+            Schedule fromBytes = new ScheduleParser().parse(Fixtures.bytes(name), StandardCharsets.UTF_8);
+            Schedule fromReader = new ScheduleParser().parse(new StringReader(Fixtures.html(name)));
+
+            assertEquals(name, fromBytes.getMySchedule(), fromReader.getMySchedule());
+            assertEquals(name, fromBytes.getEmployees(), fromReader.getEmployees());
+        }
+    }
+
+    @Test
+    public void readsSmallFixture() throws Exception {
+        Schedule schedule = new ScheduleParser().parse(Fixtures.bytes("schedule-small.html"), StandardCharsets.UTF_8);
+
+        assertEquals("Wednesday, June 11, 2025", schedule.getScheduleDate());
+        assertEquals(new Employee("Nguyen, Tom", "7:00 AM", "Mill Rd Culvert", "Boucher, Ray", "P4",
+                "40 Mill Rd, Concord", "(603) 555-0177", "555-0110"), schedule.getMySchedule());
+
+        List<Employee> employees = schedule.getEmployees();
+        assertEquals(3, employees.size());
+        assertEquals(new Employee("Alvarez, Maria", "6:30 AM", "Route 9 Paving &amp; Curb", "Boucher, Ray", "P4",
+                "Job Address: 112 Route 9, Epsom", "(603) 555-0142", "555-0110"), employees.get(0));
+        // No phones and no address row
+        assertEquals(new Employee("O'Brien, Sean", "Off", "Shop", "Kent, Lisa", "Y1", "N/A", "N/A", "N/A"),
+                employees.get(1));
+        assertEquals("Kowalski, Ann", employees.get(2).getName());
+    }
+
+    @Test
+    public void missingCurrentRowGivesPlaceholder() throws Exception {
+        String html = Fixtures.html("schedule-small.html").replace("class=\"current\"", "class=\"empRow\"");
+        Schedule schedule = new ScheduleParser().parse(html.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertEquals("You", schedule.getMySchedule().getName());
+        assertEquals("Not scheduled today", schedule.getMySchedule().getJob());
+        assertEquals(4, schedule.getEmployees().size());
+    }
+
+    @Test
+    public void rejectsPageCutAfterRow() throws Exception {
+        // Ends cleanly on a </tr> partway through the employees table
+        assertRejected(ScheduleParseException.Reason.TRUNCATED, Fixtures.html("schedule-60-cut.html"));
+    }
+
+    @Test
+    public void acceptsContentAfterClosingHtml() throws Exception {
+        Schedule expected = new ScheduleParser().parse(Fixtures.bytes("schedule-small.html"), StandardCharsets.UTF_8);
+        Schedule actual = new ScheduleParser().parse(Fixtures.bytes("schedule-small-trailing.html"), StandardCharsets.UTF_8);
+
+        assertEquals(expected.getMySchedule(), actual.getMySchedule());
+        assertEquals(expected.getEmployees(), actual.getEmployees());
+    }
+
+    @Test
+    public void acceptsPageCutAfterEmployeesTable() throws Exception {
+        String html = Fixtures.html("schedule-small.html");
+        html = html.substring(0, html.lastIndexOf("</table>") + "</table>".length());
+        Schedule schedule = new ScheduleParser().parse(html.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertEquals(3, schedule.getEmployees().size());
+    }
+
+    @Test
+    public void rejectsPageCutAfterLegendTable() throws Exception {
+        String html = Fixtures.html("schedule-small.html");
+        assertRejected(ScheduleParseException.Reason.TRUNCATED,
+                html.substring(0, html.indexOf("</table>") + "</table>".length()));
+    }
+
+    @Test
+    public void rejectsLongPageWithoutScheduleMarker() throws Exception {
+        StringBuilder html = new StringBuilder("<html><body><h1>Down for maintenance</h1>");
+        while (html.length() <= SchedulePageScanner.HEAD_BYTES) {
+            html.append("<p>We'll be back shortly.</p>\n");
+        }
+        assertRejected(ScheduleParseException.Reason.LAYOUT_CHANGED, html.append("</body></html>").toString());
+    }
+
+    @Test
+    public void rejectsLoginPage() throws Exception {
+        assertRejected(ScheduleParseException.Reason.AUTH_EXPIRED,
+                "<html><body><form><input type=\"password\" name=\"pw\"></form></body></html>");
+    }
+
+    private static void assertRejected(ScheduleParseException.Reason reason, String html) throws Exception {
+        try {
+            new ScheduleParser().parse(html.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            fail("Expected " + reason);
+        } catch (ScheduleParseException e) {
+            assertEquals(reason, e.getReason());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.lindyutilities;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The whole pipeline off-device, over a saved page and over a recording of it.
+ */
+public class SchedulePipelineTest {
+
+    private static final String EMPLOYEE_ID = "42";
+    private static final ParseExecutor EXECUTOR = new ParseExecutor(2, "pipeline-test"); // Daemon threads
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File page;
+    private File data;
+    private ScheduleArchive archive;
+
+    @Before
+    public void setUp() throws IOException {
+        page = folder.newFile("schedule.html");
+        data = folder.newFolder("data");
+        archive = new ScheduleArchive(new File(data, "archive.bin"), ScheduleArchive.DEFAULT_MAX_BYTES);
+        write(Fixtures.html("schedule-small.html"));
+    }
+
+    @Test
+    public void fileSourceChangesThenAnswersNotModified() throws Exception {
+        SchedulePipeline pipeline = pipeline(new FileScheduleSource(page), new ScheduleSnapshotStore(data, EMPLOYEE_ID));
+
+        PipelineResult first = PipelineResult.run(pipeline);
+        assertEquals(RunRecord.Outcome.CHANGED, first.outcome);
+        assertEquals("Wednesday, June 11, 2025", first.schedule.getScheduleDate());
+        assertNotNull(new ScheduleSnapshotStore(data, EMPLOYEE_ID).load());
+        assertEquals(1, archive.days().size());
+
+        PipelineResult second = PipelineResult.run(pipeline);
+        assertEquals(RunRecord.Outcome.NOT_MODIFIED, second.outcome);
+        assertTrue(second.diff.isEmpty());
+        assertEquals(first.schedule.getEmployees().size(), second.schedule.getEmployees().size());
+        assertNull(second.persistFailure);
+    }
+
+    @Test
+    public void replayMatchesRecordedRun() throws Exception {
+        ScheduleRecording recording = new ScheduleRecording(folder.newFile("recording.bin"));
+        PipelineResult recorded = PipelineResult.run(pipeline(
+                new RecordingScheduleSource(new FileScheduleSource(page), recording),
+                new ScheduleSnapshotStore(folder.newFolder("recorded"), EMPLOYEE_ID)));
+
+        List<ScheduleRecording.Entry> entries = recording.readAll();
+        assertEquals(1, entries.size());
+        PipelineResult replayed = PipelineResult.run(pipeline(new ReplayScheduleSource(entries, false),
+                new ScheduleSnapshotStore(folder.newFolder("replayed"), EMPLOYEE_ID)));
+
+        assertEquals(RunRecord.Outcome.CHANGED, replayed.outcome);
+        assertEquals(recorded.schedule.getScheduleDate(), replayed.schedule.getScheduleDate());
+        assertEquals(recorded.schedule.getMySchedule().getName(), replayed.schedule.getMySchedule().getName());
+        assertEquals(recorded.schedule.getEmployees().size(), replayed.schedule.getEmployees().size());
+    }
+
+    @Test
+    public void failureAfterParseIsReportedAsError() throws Exception {
+        ScheduleSnapshotStore broken = new ScheduleSnapshotStore(data, EMPLOYEE_ID) {
+            @Override
+            public void save(Schedule schedule) {
+                throw new IllegalStateException("Disk went away");
+            }
+        };
+        MemoryValidatorStore validators = new MemoryValidatorStore();
+        SchedulePipeline pipeline = new SchedulePipeline(EMPLOYEE_ID, new FileScheduleSource(page), broken,
+                archive, validators, EXECUTOR);
+
+        PipelineResult result = PipelineResult.run(pipeline);
+        assertNull(result.outcome);
+        assertTrue(result.error, result.error.contains("Disk went away"));
+        assertNull("The next update fetches in full instead of getting a 304", validators.getETag());
+    }
+
+    @Test
+    public void unreadableDateIsReportedButUpdateCompletes() throws Exception {
+        write(Fixtures.html("schedule-small.html").replace("Wednesday, June 11, 2025", "Week 24"));
+        PipelineResult result = PipelineResult.run(
+                pipeline(new FileScheduleSource(page), new ScheduleSnapshotStore(data, EMPLOYEE_ID)));
+
+        assertEquals(RunRecord.Outcome.CHANGED, result.outcome);
+        assertNotNull(result.persistFailure);
+        assertTrue(result.persistFailure.getMessage(), result.persistFailure.getMessage().contains("Week 24"));
+        assertTrue(archive.days().isEmpty());
+    }
+
+    private SchedulePipeline pipeline(ScheduleSource source, ScheduleSnapshotStore store) {
+        return new SchedulePipeline(EMPLOYEE_ID, source, store, archive, new MemoryValidatorStore(), EXECUTOR);
+    }
+
+    private void write(String html) throws IOException {
+        try (OutputStream out = new FileOutputStream(page)) {
+            out.write(html.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.lindyutilities;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ScheduleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void employeesAreReadOnly() {
+        Schedule schedule = new Schedule("Tuesday, March 4, 2025", null, TestRosters.roster(10, 1));
+        schedule.getEmployees().clear();
+    }
+
+    @Test
+    public void employeesDoNotFollowTheCallersList() {
+        List<Employee> employees = new ArrayList<>(TestRosters.roster(10, 1));
+        Schedule schedule = new Schedule("Tuesday, March 4, 2025", null, employees);
+        Employee first = employees.get(0);
+        employees.clear();
+        assertEquals(10, schedule.getEmployees().size());
+        assertSame(first, schedule.getEmployees().get(0));
+    }
+
+    @Test
+    public void parsedRepeatedColumnsShareOneCopyPerValue() throws Exception {
+        for (int rows : new int[]{1000, 5000}) {
+            assertShared(parse(rows));
+        }
+    }
+
+    @Test
+    public void loadedSnapshotSharesOneCopyPerValue() throws Exception {
+        ScheduleSnapshotStore store = new ScheduleSnapshotStore(folder.getRoot(), "42");
+        store.save(parse(5000));
+        Schedule loaded = store.load();
+        assertNotNull(loaded);
+        assertShared(loaded);
+    }
+
+    private static Schedule parse(int rows) throws Exception {
+        String html = SchedulePages.page(rows, rows);
+        Schedule schedule = new ScheduleParser().parse(html.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        assertEquals(rows - 1, schedule.getEmployees().size());
+        return schedule;
+    }
+
+    /**
+     * Each repeated column must hold exactly one String instance per distinct value, which is what keeps a
+     * big roster's retained size close to its distinct text rather than its row count.
+     */
+    private static void assertShared(Schedule schedule) {
+        List<Employee> employees = schedule.getEmployees();
+        assertColumnShared("shift", employees, Employee::getShift);
+        assertColumnShared("job", employees, Employee::getJob);
+        assertColumnShared("foreman", employees, Employee::getForeman);
+        assertColumnShared("crew", employees, Employee::getCrew);
+        assertColumnShared("address", employees, Employee::getJobAddress);
+        assertColumnShared("foreman phone", employees, Employee::getForemanPhone);
+    }
+
+    private static void assertColumnShared(String column, List<Employee> employees, Function<Employee, String> field) {
+        Set<String> values = new HashSet<>();
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Employee employee : employees) {
+            values.add(field.apply(employee));
+            instances.add(field.apply(employee));
+        }
+        assertEquals(column + " copies", values.size(), instances.size());
+    }
+}
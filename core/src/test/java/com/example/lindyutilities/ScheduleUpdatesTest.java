@@ -0,0 +1,231 @@
+package com.example.lindyutilities;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScheduleUpdatesTest {
+
+    private static final String EMPLOYEE_ID = "42";
+    private static final ParseExecutor EXECUTOR = new ParseExecutor(2, "updates-test"); // Daemon threads
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final List<Boolean> changes = new CopyOnWriteArrayList<>(); // The notify flag of each reported change
+    private final ScheduleUpdates.Hooks hooks = (employeeId, schedule, diff, notify) -> changes.add(notify);
+    private final long[] now = {0};
+    private ScheduleUpdates updates;
+    private File page;
+
+    @Before
+    public void setUp() throws IOException {
+        updates = new ScheduleUpdates(() -> now[0]);
+        page = folder.newFile("schedule.html");
+        write(Fixtures.html("schedule-small.html"));
+    }
+
+    @Test
+    public void changeFoundByBackgroundCheckNotifiesOnce() throws Exception {
+        SchedulePipeline pipeline = pipeline(new FileScheduleSource(page));
+
+        // The prefetch runs the same notifying check as the worker chain
+        assertEquals(Answer.CHANGED, check(pipeline));
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0));
+
+        // The worker runs moments later and is answered from the memo: nothing new, no second notification
+        now[0] += 5_000;
+        assertEquals(Answer.NOT_MODIFIED, check(pipeline));
+
+        // Later, the server says 304
+        now[0] += ScheduleUpdates.DEFAULT_MEMO_WINDOW_MILLIS;
+        assertEquals(Answer.NOT_MODIFIED, check(pipeline));
+        assertEquals(1, changes.size());
+        assertEquals(2, fetches.get());
+
+        // A real revision is notified again; a new length gives it a new ETag
+        write(Fixtures.html("schedule-small.html").replace("6:30 AM", "10:30 AM"));
+        now[0] += ScheduleUpdates.DEFAULT_MEMO_WINDOW_MILLIS;
+        assertEquals(Answer.CHANGED, check(pipeline));
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void sharedUpdateReportsChangeOnceWithNotify() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SchedulePipeline pipeline = pipeline(new HeldSource(new FileScheduleSource(page), release));
+
+        // The screen asks first, then a background check joins the same update
+        Caller foreground = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, hooks, foreground, false, false, ParseExecutor.Lane.FOREGROUND);
+        Caller background = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, hooks, background, true, true, ParseExecutor.Lane.BACKGROUND);
+        release.countDown();
+
+        assertEquals(Answer.CHANGED, foreground.await());
+        assertEquals(Answer.CHANGED, background.await());
+        assertEquals(1, fetches.get());
+        assertEquals(1, changes.size());
+        assertTrue("A joining check still gets its notification", changes.get(0));
+    }
+
+    @Test
+    public void failingHookStillAnswersEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SchedulePipeline pipeline = pipeline(new HeldSource(new FileScheduleSource(page), release));
+        ScheduleUpdates.Hooks failing = new ScheduleUpdates.Hooks() {
+            @Override
+            public void onChanged(String employeeId, Schedule schedule, ScheduleDiff diff, boolean notify) {
+                throw new IllegalStateException("Notification channel missing");
+            }
+
+            @Override
+            public void onRejected(String employeeId, ScheduleParseException e) {
+                throw new IllegalStateException("Login prompt failed");
+            }
+        };
+
+        Caller foreground = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, failing, foreground, false, false, ParseExecutor.Lane.FOREGROUND);
+        Caller background = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, failing, background, true, true, ParseExecutor.Lane.BACKGROUND);
+        release.countDown();
+        assertEquals(Answer.CHANGED, foreground.await());
+        assertEquals(Answer.CHANGED, background.await());
+
+        // A page that isn't a schedule goes through the rejection hook; the caller still hears back
+        write("<html><body><form id=\"login\"></form></body></html>");
+        now[0] += ScheduleUpdates.DEFAULT_MEMO_WINDOW_MILLIS;
+        Caller rejected = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline(new FileScheduleSource(page)), failing, rejected, false, false,
+                ParseExecutor.Lane.FOREGROUND);
+        assertEquals(Answer.ERROR, rejected.await());
+    }
+
+    @Test
+    public void foregroundFetchWithinWindowGetsMemoizedSchedule() throws Exception {
+        SchedulePipeline pipeline = pipeline(new FileScheduleSource(page));
+        assertEquals(Answer.CHANGED, check(pipeline));
+
+        Caller request = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, hooks, request, false, false, ParseExecutor.Lane.FOREGROUND);
+        assertEquals(Answer.CHANGED, request.await());
+        assertEquals("Nguyen, Tom", request.mySchedule.getName());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void zeroWindowAlwaysFetches() throws Exception {
+        updates.setMemoWindowMillis(0);
+        SchedulePipeline pipeline = pipeline(new FileScheduleSource(page));
+        check(pipeline);
+        check(pipeline);
+        assertEquals(2, fetches.get());
+    }
+
+    private Answer check(SchedulePipeline pipeline) throws InterruptedException {
+        Caller request = new Caller();
+        updates.request(EMPLOYEE_ID, pipeline, hooks, request, true, true, ParseExecutor.Lane.BACKGROUND);
+        return request.await();
+    }
+
+    private SchedulePipeline pipeline(ScheduleSource source) {
+        ScheduleSource counting = (request, callback) -> {
+            fetches.incrementAndGet();
+            source.fetch(request, callback);
+        };
+        return new SchedulePipeline(EMPLOYEE_ID, counting, new ScheduleSnapshotStore(folder.getRoot(), EMPLOYEE_ID),
+                null, new MemoryValidatorStore(), EXECUTOR);
+    }
+
+    private void write(String html) throws IOException {
+        try (OutputStream out = new FileOutputStream(page)) {
+            out.write(html.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private enum Answer {
+        CHANGED,
+        NOT_MODIFIED,
+        ERROR
+    }
+
+    /**
+     * One caller's view of a request.
+     */
+    private static class Caller implements ScheduleUpdates.Callback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile Answer answer;
+        volatile Employee mySchedule;
+
+        @Override
+        public void onSuccess(String scheduleDate, Employee mySchedule, List<Employee> employees) {
+            this.mySchedule = mySchedule;
+            finish(Answer.CHANGED);
+        }
+
+        @Override
+        public void onNotModified() {
+            finish(Answer.NOT_MODIFIED);
+        }
+
+        @Override
+        public void onError(String error) {
+            finish(Answer.ERROR);
+        }
+
+        private void finish(Answer answer) {
+            this.answer = answer;
+            done.countDown();
+        }
+
+        Answer await() throws InterruptedException {
+            if (!done.await(10, TimeUnit.SECONDS)) {
+                throw new AssertionError("Request never finished");
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * Holds requests until released, so other callers can join the update meanwhile.
+     */
+    private static class HeldSource implements ScheduleSource {
+        private final ScheduleSource source;
+        private final CountDownLatch release;
+
+        HeldSource(ScheduleSource source, CountDownLatch release) {
+            this.source = source;
+            this.release = release;
+        }
+
+        @Override
+        public void fetch(Request request, Callback callback) {
+            new Thread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                source.fetch(request, callback);
+            }).start();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.lindyutilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic rosters for index and model tests. Jobs, crews and foremen repeat across rows the way they do
+ * on a real schedule, and some rows have no phone or address. For whole pages, see {@link SchedulePages}.
+ */
+final class TestRosters {
+
+    private static final String[] FIRST = {"Maria", "Tom", "Sean", "Ann", "Luis", "Dana", "Raj", "Eve", "Kim", "Bo"};
+    private static final String[] LAST = {"Alvarez", "Nguyen", "O'Brien", "Kowalski", "Boucher", "Kent", "Patel"};
+    private static final String[] SHIFTS = {"6:00 AM", "6:30 AM", "7:00 AM", "Off"};
+
+    private TestRosters() {
+    }
+
+    static List<Employee> roster(int rows, long seed) {
+        Random random = new Random(seed);
+        int jobs = Math.max(3, rows / 10);
+        int crews = Math.max(2, rows / 6);
+        int foremen = Math.max(2, rows / 8);
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int job = random.nextInt(jobs);
+            int foreman = random.nextInt(foremen);
+            String name = LAST[random.nextInt(LAST.length)] + ", " + FIRST[random.nextInt(FIRST.length)] + " " + i;
+            String phone = random.nextInt(5) == 0 ? "N/A" : String.format(Locale.ROOT, "(%03d) %03d-%04d",
+                    200 + random.nextInt(800), random.nextInt(1000), random.nextInt(10000));
+            employees.add(new Employee(name, SHIFTS[random.nextInt(SHIFTS.length)], "Job " + job,
+                    "Foreman " + foreman, "C" + random.nextInt(crews),
+                    random.nextInt(4) == 0 ? "N/A" : "Job Address: " + (100 + job) + " Main St",
+                    phone, random.nextInt(5) == 0 ? "N/A" : "555-01" + (10 + foreman % 90)));
+        }
+        return employees;
+    }
+}
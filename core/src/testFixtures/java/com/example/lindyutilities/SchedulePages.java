@@ -0,0 +1,183 @@
+package com.example.lindyutilities;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds synthetic daily schedule pages with the same markup the real page uses, for benchmarks, fuzzing
+ * and memory tests. Part of core's test fixtures, so both core's tests and the benchmarks build on it.
+ * <p>
+ * Pages are deterministic for a given row count, seed and set of quirks. Jobs, crews and foremen repeat
+ * across rows the way they do on a real roster, and most rows are followed by a job address row. Quirks
+ * only change the markup, not the roster: the same seed gives the same people, shifts and jobs with or
+ * without them.
+ */
+public final class SchedulePages {
+
+    public static final int MIN_ROWS = 10;
+    public static final int MAX_ROWS = 50_000;
+
+    /**
+     * Edge cases seen (or plausible) on the real page.
+     */
+    public enum Quirk {
+        /** No job address rows at all. */
+        MISSING_ADDRESSES,
+        /** Your own row isn't on the page, as on a day you're not scheduled. */
+        NO_CURRENT_ROW,
+        /** Line breaks, tabs, CRLFs, non-breaking spaces and padded class attributes. */
+        ODD_WHITESPACE,
+        /** Accented, non-Latin, combining-character and emoji names. */
+        UNICODE_NAMES,
+        /** Unclosed cells, rows and spans, misnested inline tags and stray end tags, all repaired by the parser. */
+        MALFORMED_NESTING
+    }
+
+    private static final String[] SHIFTS = {"6:00 AM", "6:30 AM", "7:00 AM", "7:30 AM", "Off"};
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Route 9", "Industrial Pkwy", "Mill Rd"};
+    // Escaped so the source doesn't depend on the build's file encoding
+    private static final String[] UNICODE_NAMES = {
+            "Jos\u00E9 N\u00FA\u00F1ez",
+            "Zoe\u0308 Bront\u00EB", // Combining diaeresis
+            "\u0141ukasz Wr\u00F3bel",
+            "Nguy\u1EC5n V\u0103n An",
+            "S\u00F8ren \u00D8deg\u00E5rd",
+            "\u0414\u043C\u0438\u0442\u0440\u0438\u0439 \u0418\u0432\u0430\u043D\u043E\u0432",
+            "\u0645\u062D\u0645\u062F \u0639\u0644\u064A",
+            "\u674E\u5C0F\u9F99",
+            "Ana-Mar\u00EDa O'Neil",
+            "Bo \uD83D\uDEA7 Builder" // Outside the BMP
+    };
+    private static final String[] GAPS = {"", " ", "\n", "\r\n\t", "  \t "};
+
+    private SchedulePages() {
+    }
+
+    /**
+     * @param rows Number of employee rows, including your own.
+     * @param seed Seed for the pseudo-random field values.
+     */
+    public static String page(int rows, long seed) {
+        return page(rows, seed, EnumSet.noneOf(Quirk.class));
+    }
+
+    /**
+     * @param rows   Number of employee rows, including your own unless {@link Quirk#NO_CURRENT_ROW} is set.
+     * @param seed   Seed for the pseudo-random field values.
+     * @param quirks Edge cases to work into the markup.
+     */
+    public static String page(int rows, long seed, Set<Quirk> quirks) {
+        Random random = new Random(seed);
+        Random markup = new Random(~seed); // Separate, so quirks don't shift the roster
+        boolean noAddresses = quirks.contains(Quirk.MISSING_ADDRESSES);
+        boolean whitespace = quirks.contains(Quirk.ODD_WHITESPACE);
+        boolean unicode = quirks.contains(Quirk.UNICODE_NAMES);
+        boolean malformed = quirks.contains(Quirk.MALFORMED_NESTING);
+        int jobs = Math.max(3, rows / 10);
+        int crews = Math.max(2, rows / 6);
+        int foremen = Math.max(2, rows / 8);
+
+        StringBuilder html = new StringBuilder(rows * 600);
+        html.append("<!DOCTYPE html><html><head><title>Daily Schedule</title></head><body>")
+                .append("<table class=\"dailySchedule\"><tr><td>Legend</td></tr></table>")
+                .append("<h3><span class=\"dailySchedule\">Daily Schedule for</span> Tuesday, March 4, 2025</h3>")
+                .append("<table class=\"dailySchedule\"><thead><tr><th>Employee</th><th>Shift</th><th>Job</th>")
+                .append("<th>Foreman</th><th>Crew</th></tr></thead><tbody>\n");
+
+        int current = quirks.contains(Quirk.NO_CURRENT_ROW) ? -1 : rows / 2;
+        for (int i = 0; i < rows; i++) {
+            int job = random.nextInt(jobs);
+            int foreman = random.nextInt(foremen);
+            String rowClass = i == current ? "current" : "empRow";
+            String name = unicode && markup.nextInt(3) == 0
+                    ? UNICODE_NAMES[markup.nextInt(UNICODE_NAMES.length)] + " " + i
+                    : "Employee " + i;
+            boolean broken = malformed && markup.nextInt(4) == 0; // Only some rows, like a hand-edited page
+
+            html.append("<tr class=\"").append(whitespace ? "  " + rowClass + " " : rowClass).append("\">")
+                    .append(gap(whitespace, markup))
+                    .append("<td class=\"dailySchedule employee\">").append(name)
+                    .append(whitespace ? "&nbsp;" + gap(true, markup) : " ")
+                    .append("<span class=\"empComments\">").append(phone(random))
+                    .append(broken ? "" : "</span>").append("</td>").append(gap(whitespace, markup))
+                    .append("<td class=\"dailySchedule shift\">").append(SHIFTS[random.nextInt(SHIFTS.length)])
+                    .append("</td>").append(gap(whitespace, markup))
+                    .append("<td class=\"dailySchedule job\">")
+                    .append(broken ? "<b><i>Job " + job + "</b></i>" : "Job " + job)
+                    .append(gap(whitespace, markup))
+                    .append("<div class=\"jobLink\"><a href=\"#\">Job Schedule</a></div></td>")
+                    .append(gap(whitespace, markup))
+                    .append("<td class=\"dailySchedule foreman\">Foreman ").append(foreman);
+            if (random.nextInt(5) != 0) {
+                html.append(" <span class=\"noWrap empComments\">555-01").append(10 + foreman % 90).append("</span>");
+            }
+            html.append(broken ? "</div>" : "").append("</td>").append(gap(whitespace, markup))
+                    .append("<td class=\"dailySchedule crew\">C").append(random.nextInt(crews))
+                    .append(broken ? "\n" : "</td></tr>\n"); // Closed implicitly by the next row
+
+            if (random.nextInt(4) != 0 && !noAddresses) {
+                html.append("<tr><td class=\"dailySchedule pnm-comments\" colspan=\"5\">Job Address:")
+                        .append(whitespace ? gap(true, markup) + " " : " ")
+                        .append(100 + job).append(' ').append(STREETS[job % STREETS.length]).append("</td></tr>\n");
+            }
+        }
+        return html.append("</tbody></table></body></html>").toString();
+    }
+
+    /**
+     * A page for fuzzing: between {@link #MIN_ROWS} and {@link #MAX_ROWS} rows, log-uniformly so most are
+     * small, with a random mix of quirks.
+     */
+    public static String randomPage(long seed) {
+        Random random = new Random(seed);
+        int rows = (int) Math.round(MIN_ROWS * Math.pow((double) MAX_ROWS / MIN_ROWS, random.nextDouble()));
+        return page(rows, random.nextLong(), randomQuirks(random));
+    }
+
+    /**
+     * Writes a corpus of random pages to a directory, e.g. for fuzzing outside the JVM.
+     * <p>
+     * Usage: {@code SchedulePages <directory> [pages] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "schedule-corpus");
+        int pages = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+        for (int i = 0; i < pages; i++) {
+            File file = new File(dir, String.format(Locale.ROOT, "schedule-%05d.html", i));
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                out.write(randomPage(seed + i));
+            }
+        }
+        System.out.println("Wrote " + pages + " pages to " + dir.getAbsolutePath());
+    }
+
+    private static Set<Quirk> randomQuirks(Random random) {
+        Set<Quirk> quirks = EnumSet.noneOf(Quirk.class);
+        for (Quirk quirk : Quirk.values()) {
+            if (random.nextInt(3) == 0) {
+                quirks.add(quirk);
+            }
+        }
+        return quirks;
+    }
+
+    private static String gap(boolean whitespace, Random random) {
+        return whitespace ? GAPS[random.nextInt(GAPS.length)] : "";
+    }
+
+    private static String phone(Random random) {
+        return String.format(Locale.ROOT, "(%03d) %03d-%04d", 200 + random.nextInt(800), random.nextInt(1000), random.nextInt(10000));
+    }
+}